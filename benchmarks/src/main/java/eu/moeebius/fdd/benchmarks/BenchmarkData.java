@@ -0,0 +1,79 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.benchmarks;
+import java.util.Random;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparWindow;
+
+/**
+ * Reproducible AHU data for the benchmarks.
+ */
+public final class BenchmarkData {
+
+	private BenchmarkData() {}
+
+	/**
+	 * Builds a window of AHU data in steady state, with random temperatures and control signals that keep the given operation mode.
+	 * @param length		The number of samples.
+	 * @param mode			The operation mode of every sample (1 ... 5).
+	 * @param seed			The seed of the random temperatures.
+	 * @return				The window of AHU data.
+	 */
+	public static AparWindow steady(int length, int mode, long seed) {
+		Random random = new Random(seed);
+		double[][] columns = new double[9][length];
+		for(int ii=0; ii < length; ii++){
+			double tra = 20 + 4 * random.nextDouble();
+			double toa = -5 + 35 * random.nextDouble();
+			double tma = 0.7 * tra + 0.3 * toa + random.nextGaussian();
+			double tsas = 14 + 4 * random.nextDouble();
+			columns[0][ii] = tsas + 2 * random.nextGaussian();
+			columns[1][ii] = tsas;
+			columns[2][ii] = tma;
+			columns[3][ii] = tra;
+			columns[4][ii] = toa;
+			columns[5][ii] = 18;
+			double[] control = control(mode, random);
+			columns[6][ii] = control[0];
+			columns[7][ii] = control[1];
+			columns[8][ii] = control[2];
+		}
+		return new AparWindow(columns[0], columns[1], columns[2], columns[3], columns[4], columns[5], columns[6], columns[7], columns[8]);
+	}
+
+	/**
+	 * Control signals (uhc, ucc, ud) of a sample in the given operation mode
+	 */
+	private static double[] control(int mode, Random random) {
+		double open = 0.1 + 0.8 * random.nextDouble();
+		switch (mode) {
+		case 1:
+			return new double[] {open, 0, 0};
+		case 2:
+			return new double[] {0, 0, open};
+		case 3:
+			return new double[] {0, open, 1};
+		case 4:
+			return new double[] {0, open, 0};
+		default:
+			return new double[] {open, open, open};
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.benchmarks;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparWindow;
+import eu.moeebius.fdd.rules.ahu.apar.ComparisonKernels;
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+
+/**
+ * Throughput of the comparison kernels of Rule #1 and Rule #27, scalar against the implementation selected for the JVM. The
+ * SIMD kernels are only selected when the benchmarks run with java --add-modules jdk.incubator.vector -jar benchmarks.jar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComparisonKernelBenchmark {
+
+	@Param({"100", "10000", "100000"})
+	public int size;
+
+	@Param({"scalar", "selected"})
+	public String kernels;
+
+	private ComparisonKernels comparisonKernels;
+	private double[] tsa;
+	private double[] tma;
+	private double[] tra;
+	private double[] toa;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		AparWindow window = BenchmarkData.steady(this.size, 1, 42L);
+		this.tsa = window.getColumn(SIGNAL.TSA);
+		this.tma = window.getColumn(SIGNAL.TMA);
+		this.tra = window.getColumn(SIGNAL.TRA);
+		this.toa = window.getColumn(SIGNAL.TOA);
+		this.comparisonKernels = "scalar".equals(this.kernels) ? ComparisonKernels.scalar() : ComparisonKernels.get();
+	}
+
+	@Benchmark
+	public int rule1() {
+		return this.comparisonKernels.countLess(this.tsa, this.tma, 1.1, -2, 0, this.size);
+	}
+
+	@Benchmark
+	public int rule27() {
+		return this.comparisonKernels.countAboveMax(this.tma, this.tra, this.toa, 2, 0, this.size);
+	}
+}
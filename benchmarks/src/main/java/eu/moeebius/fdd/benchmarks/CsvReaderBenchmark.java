@@ -0,0 +1,125 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.benchmarks;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparAccumulator;
+import eu.moeebius.fdd.rules.ahu.apar.AparBlockSink;
+import eu.moeebius.fdd.rules.ahu.apar.AparCsvReader;
+import eu.moeebius.fdd.rules.ahu.apar.AparEngine;
+import eu.moeebius.fdd.rules.ahu.apar.AparWindow;
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+
+/**
+ * Throughput of the CSV ingestion of a trend log held in memory: the reader alone and the reader feeding the rules in blocks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvReaderBenchmark {
+
+	@Param({"1000", "100000"})
+	public int size;
+
+	private byte[] data;
+	private AparCsvReader reader;
+	private AparEngine engine = new AparEngine();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		AparWindow window = BenchmarkData.steady(this.size, 3, 42L);
+		EnumMap<SIGNAL, String> columns = new EnumMap<SIGNAL, String>(SIGNAL.class);
+		StringBuilder csv = new StringBuilder("time");
+		for(SIGNAL signal : SIGNAL.values()){
+			columns.put(signal, signal.name().toLowerCase());
+			csv.append(',').append(signal.name().toLowerCase());
+		}
+		csv.append('\n');
+		for(int ii=0; ii < this.size; ii++){
+			csv.append(1462060800000L + 60000L * ii);
+			for(SIGNAL signal : SIGNAL.values()){
+				csv.append(',').append(Math.round(window.getColumn(signal)[ii] * 100) / 100.0);
+			}
+			csv.append('\n');
+		}
+		this.data = csv.toString().getBytes(StandardCharsets.US_ASCII);
+		this.reader = new AparCsvReader(columns, "time");
+	}
+
+	@Benchmark
+	public long parse() throws IOException {
+		return this.reader.read(this.channel(), (timestamp, tsa, tsas, tma, tra, toa, tco, uhc, ucc, ud) -> {});
+	}
+
+	@Benchmark
+	public AparAccumulator parseAndAccumulate() throws IOException {
+		AparAccumulator accumulator = new AparAccumulator();
+		AparBlockSink sink = new AparBlockSink(this.engine, accumulator);
+		this.reader.read(this.channel(), sink);
+		sink.flush();
+		return accumulator;
+	}
+
+	private ReadableByteChannel channel() {
+		final ByteBuffer source = ByteBuffer.wrap(this.data);
+		return new ReadableByteChannel() {
+			@Override
+			public int read(ByteBuffer target) {
+				if(!source.hasRemaining()){
+					return -1;
+				}
+				int length = Math.min(source.remaining(), target.remaining());
+				target.put(source.array(), source.position(), length);
+				source.position(source.position() + length);
+				return length;
+			}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+}
@@ -0,0 +1,75 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package eu.moeebius.fdd.benchmarks;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparEngine;
+import eu.moeebius.fdd.rules.ahu.apar.AparWindow;
+
+/**
+ * Throughput of the complete APAR rule set over a steady window, computing the probabilities of fault against deciding them
+ * with the default fault threshold of the diagnosis.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionBenchmark {
+
+	@Param({"1", "3", "4"})
+	public int mode;
+
+	@Param({"10000", "100000"})
+	public int size;
+
+	private AparEngine engine = new AparEngine();
+	private AparWindow window;
+	private double[] symptoms = new double[AparEngine.SYMPTOMS];
+	private boolean[] decisions = new boolean[AparEngine.SYMPTOMS];
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.window = BenchmarkData.steady(this.size, this.mode, 42L);
+	}
+
+	@Benchmark
+	public double apply() {
+		return this.engine.apply(this.window, this.symptoms);
+	}
+
+	@Benchmark
+	public double decide() {
+		return this.engine.decide(this.window, 0.7, this.decisions);
+	}
+}
@@ -0,0 +1,94 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.benchmarks;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eu.moeebius.fdd.isolation.ahu.apar.DiagnosisResult;
+import eu.moeebius.fdd.isolation.ahu.apar.InferRootCause;
+import eu.moeebius.fdd.rules.ahu.apar.AparEngine;
+
+/**
+ * Throughput of InferRootCause.diagnose for no, one and all symptoms above the fault threshold, printed and as a
+ * DiagnosisResult. The printed diagnosis is discarded so that the console does not dominate the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InferRootCauseBenchmark {
+
+	@Param({"0", "1", "28"})
+	public int faults;
+
+	private InferRootCause inferRootCause;
+	private double[] symptoms;
+	private DiagnosisResult result = new DiagnosisResult();
+	private PrintStream console;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.symptoms = new double[AparEngine.SYMPTOMS];
+		Arrays.fill(this.symptoms, 0, this.faults, 1);
+		this.inferRootCause = new InferRootCause(new Array2DRowRealMatrix(this.symptoms));
+		this.console = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {}
+
+			@Override
+			public void write(byte[] b, int off, int len) {}
+		}));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		System.setOut(this.console);
+	}
+
+	@Benchmark
+	public void diagnose() {
+		this.inferRootCause.diagnose();
+	}
+
+	@Benchmark
+	public DiagnosisResult diagnoseResult() {
+		return this.inferRootCause.diagnose(this.symptoms, this.result);
+	}
+}
@@ -0,0 +1,103 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.benchmarks;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparWindow;
+import eu.moeebius.fdd.rules.ahu.apar.DetermineOperationMode;
+import eu.moeebius.fdd.rules.ahu.apar.DetermineSteadyStateOperationMode;
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+
+/**
+ * Throughput of the operation mode detection over a window: DetermineOperationMode.get on every sample and
+ * DetermineSteadyStateOperationMode through its instance and static entry points.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationModeBenchmark {
+
+	@Param({"10", "100", "1000", "10000", "100000"})
+	public int size;
+
+	@Param({"1", "3", "5"})
+	public int mode;
+
+	private DetermineOperationMode determineMode = new DetermineOperationMode();
+	private DetermineSteadyStateOperationMode determineSteadyStateMode = new DetermineSteadyStateOperationMode();
+	private RealMatrix[] samples;
+	private RealMatrix inputs;
+	private double[] uhc;
+	private double[] ud;
+	private double[] ucc;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		AparWindow window = BenchmarkData.steady(this.size, this.mode, 42L);
+		this.uhc = window.getColumn(SIGNAL.UHC);
+		this.ud = window.getColumn(SIGNAL.UD);
+		this.ucc = window.getColumn(SIGNAL.UCC);
+		this.inputs = new Array2DRowRealMatrix(this.size, 3);
+		this.inputs.setColumn(0, this.uhc);
+		this.inputs.setColumn(1, this.ud);
+		this.inputs.setColumn(2, this.ucc);
+		this.samples = new RealMatrix[this.size];
+		for(int ii=0; ii < this.size; ii++){
+			this.samples[ii] = new Array2DRowRealMatrix(new double[] {this.uhc[ii], this.ud[ii], this.ucc[ii]});
+		}
+	}
+
+	@Benchmark
+	public double operationModeGet() {
+		double result = 0;
+		for(int ii=0; ii < this.samples.length; ii++){
+			result = result + this.determineMode.get(this.samples[ii]);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public double steadyStateInstance() {
+		return this.determineSteadyStateMode.apply(this.inputs);
+	}
+
+	@Benchmark
+	public double steadyStateStatic() {
+		return DetermineSteadyStateOperationMode.apply(this.uhc, this.ud, this.ucc);
+	}
+}
@@ -0,0 +1,107 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package eu.moeebius.fdd.benchmarks;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparAccumulator;
+import eu.moeebius.fdd.rules.ahu.apar.AparEngine;
+import eu.moeebius.fdd.rules.ahu.apar.AparRangeIndex;
+import eu.moeebius.fdd.rules.ahu.apar.AparTelemetryFile;
+import eu.moeebius.fdd.rules.ahu.apar.AparWindow;
+
+/**
+ * Latency of the symptoms of a random time range of a month of one-minute telemetry, read from the range index against
+ * evaluating the rules on the samples of the range.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeIndexBenchmark {
+
+	private static final int MONTH = 31 * 24 * 60;
+	private static final long MINUTE = 60L * 1000L;
+
+	@Param({"240", "10080"})
+	public int minutes;
+
+	private AparEngine engine = new AparEngine();
+	private AparTelemetryFile telemetry;
+	private AparRangeIndex index;
+	private AparAccumulator accumulator = new AparAccumulator();
+	private double[] symptoms = new double[AparEngine.SYMPTOMS];
+	private Random random = new Random(42L);
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		Path directory = Files.createTempDirectory("apar");
+		directory.toFile().deleteOnExit();
+		Path telemetryPath = directory.resolve("month.apar");
+		Path indexPath = directory.resolve("month.apix");
+		telemetryPath.toFile().deleteOnExit();
+		indexPath.toFile().deleteOnExit();
+		this.telemetry = AparTelemetryFile.create(telemetryPath, MONTH);
+		// one steady day per operation mode in turn
+		for(int day=0; day < 31; day++){
+			AparWindow window = BenchmarkData.steady(24 * 60, 1 + day % 5, day);
+			long[] timestamps = new long[window.getLength()];
+			for(int ii=0; ii < timestamps.length; ii++){
+				timestamps[ii] = (day * 24L * 60L + ii) * MINUTE;
+			}
+			this.telemetry.append(timestamps, window);
+		}
+		this.index = AparRangeIndex.create(indexPath, MONTH, this.engine.getParameters());
+		this.index.update(this.telemetry, this.engine);
+	}
+
+	@Benchmark
+	public double index() {
+		long from = this.random.nextInt(MONTH - this.minutes) * MINUTE;
+		this.accumulator.clear();
+		this.index.accumulate(this.telemetry, from, from + this.minutes * MINUTE, this.accumulator);
+		return this.engine.apply(this.accumulator, this.symptoms);
+	}
+
+	@Benchmark
+	public double scan() {
+		int from = this.random.nextInt(MONTH - this.minutes);
+		this.accumulator.clear();
+		this.telemetry.accumulate(this.engine, from, this.minutes, this.accumulator);
+		return this.engine.apply(this.accumulator, this.symptoms);
+	}
+}
@@ -0,0 +1,140 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.benchmarks;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eu.moeebius.fdd.rules.ahu.apar.*;
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+
+/**
+ * Throughput of every APAR rule through its instance (RealMatrix and primitive columns) and static entry points and of its
+ * branch-free violation bitmap, on a window in a steady-state operation mode where the rule applies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleBenchmark {
+
+	@Param({"Rule1Symptom", "Rule2Symptom", "Rule3Symptom", "Rule4Symptom", "Rule5Symptom", "Rule6Symptom", "Rule7Symptom",
+		"Rule8Symptom", "Rule9Symptom", "Rule10Symptom", "Rule11Symptom", "Rule12Symptom", "Rule13Symptom", "Rule14Symptom",
+		"Rule15Symptom", "Rule16Symptom", "Rule17Symptom", "Rule18Symptom", "Rule19Symptom", "Rule20Symptom", "Rule21Symptom",
+		"Rule22Symptom", "Rule23Symptom", "Rule24Symptom", "Rule25Symptom", "Rule26Symptom", "Rule27Symptom", "Rule28Symptom"})
+	public String rule;
+
+	@Param({"10", "100", "1000", "10000", "100000"})
+	public int size;
+
+	private SYMPTOM symptom;
+	private AparInterface instance;
+	private double mode;
+	private double[][] columns;
+	private AparWindow window;
+	private long[] bitmap;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		AparRuleRegistry registry = new AparRuleRegistry();
+		this.symptom = SYMPTOM.valueOf(this.rule);
+		this.instance = registry.getRule(this.symptom);
+		// the lowest steady-state mode in which the rule applies
+		this.mode = Integer.numberOfTrailingZeros(registry.getModes(this.symptom) & ~1);
+		AparWindow window = BenchmarkData.steady(this.size, (int) this.mode, 42L);
+		this.window = window;
+		this.bitmap = new long[ViolationBitmaps.words(this.size)];
+		SIGNAL[] signals = registry.getSignals(this.symptom);
+		this.columns = new double[signals.length][];
+		RealMatrix inputs = new Array2DRowRealMatrix(this.size, signals.length);
+		for(int cc=0; cc < signals.length; cc++){
+			this.columns[cc] = window.getColumn(signals[cc]);
+			inputs.setColumn(cc, this.columns[cc]);
+		}
+		this.instance.setInputs(this.mode, inputs);
+	}
+
+	@Benchmark
+	public double instance() {
+		return this.instance.apply();
+	}
+
+	@Benchmark
+	public double instanceColumns() {
+		return this.instance.apply(this.mode, this.columns);
+	}
+
+	@Benchmark
+	public int bitmap() {
+		return AparKernel.of(this.symptom).violations(FddParameterSnapshot.DEFAULT, this.mode, this.window, 0, this.size, this.bitmap);
+	}
+
+	@Benchmark
+	public double statics() {
+		double[][] c = this.columns;
+		switch (this.symptom) {
+		case Rule1Symptom: return Rule1.apply(this.mode, c[0], c[1]);
+		case Rule2Symptom: return Rule2.apply(this.mode, c[0], c[1], c[2]);
+		case Rule3Symptom: return Rule3.apply(this.mode, c[0], c[1], c[2]);
+		case Rule4Symptom: return Rule4.apply(this.mode, c[0]);
+		case Rule5Symptom: return Rule5.apply(this.mode, c[0], c[1]);
+		case Rule6Symptom: return Rule6.apply(this.mode, c[0], c[1]);
+		case Rule7Symptom: return Rule7.apply(this.mode, c[0], c[1]);
+		case Rule8Symptom: return Rule8.apply(this.mode, c[0], c[1]);
+		case Rule9Symptom: return Rule9.apply(this.mode, c[0], c[1]);
+		case Rule10Symptom: return Rule10.apply(this.mode, c[0], c[1]);
+		case Rule11Symptom: return Rule11.apply(this.mode, c[0], c[1]);
+		case Rule12Symptom: return Rule12.apply(this.mode, c[0], c[1]);
+		case Rule13Symptom: return Rule13.apply(this.mode, c[0], c[1], c[2]);
+		case Rule14Symptom: return Rule14.apply(this.mode, c[0]);
+		case Rule15Symptom: return Rule15.apply(this.mode, c[0], c[1]);
+		case Rule16Symptom: return Rule16.apply(this.mode, c[0], c[1]);
+		case Rule17Symptom: return Rule17.apply(this.mode, c[0], c[1]);
+		case Rule18Symptom: return Rule18.apply(this.mode, c[0], c[1], c[2]);
+		case Rule19Symptom: return Rule19.apply(this.mode, c[0], c[1], c[2]);
+		case Rule20Symptom: return Rule20.apply(this.mode, c[0]);
+		case Rule21Symptom: return Rule21.apply(this.mode, c[0], c[1], c[2]);
+		// the registry reads uhc, ucc while the static function takes ucc, uhc
+		case Rule22Symptom: return Rule22.apply(this.mode, c[1], c[0]);
+		case Rule23Symptom: return Rule23.apply(this.mode, c[0], c[1]);
+		case Rule24Symptom: return Rule24.apply(this.mode, c[0], c[1]);
+		case Rule25Symptom: return Rule25.apply(this.mode, c[0], c[1]);
+		case Rule26Symptom: return Rule26.apply(this.mode, c[0], c[1], c[2]);
+		case Rule27Symptom: return Rule27.apply(this.mode, c[0], c[1], c[2]);
+		default: return Rule28.apply(c[0], c[1], c[2]);
+		}
+	}
+}
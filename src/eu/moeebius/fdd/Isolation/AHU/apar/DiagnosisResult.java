@@ -0,0 +1,112 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.isolation.ahu.apar;
+import java.util.EnumSet;
+
+import eu.moeebius.fdd.isolation.ahu.apar.ErrorCodes.ERROR_CODES;
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+
+/**
+ * Outcome of the root cause diagnosis of one AHU unit: the symptoms above the fault threshold, their plausible root
+ * causes and, for every cause, the number of triggered symptoms pointing to it. A result can be reused for the next
+ * diagnosis (@see eu.moeebius.fdd.isolation.ahu.apar.InferRootCause#diagnose(double[], DiagnosisResult)).
+ */
+public class DiagnosisResult {
+
+	private long symptoms = 0;
+	private long causes = 0;
+	private EnumSet<ERROR_CODES> causeSet = EnumSet.noneOf(ERROR_CODES.class);
+
+	/**
+	 * Overwrites the result with a set of triggered symptoms
+	 * @param symptoms		The mask of the triggered symptoms
+	 */
+	void set(long symptoms) {
+		this.symptoms = symptoms;
+		this.causes = SymptomCauses.causes(symptoms);
+		SymptomCauses.toSet(this.causes, this.causeSet);
+	}
+
+	/**
+	 * Get the triggered symptoms
+	 * @return	The bitmask of the triggered symptoms, bit n standing for the symptom of ordinal n (@see eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM)
+	 */
+	public long getSymptoms() {
+		return this.symptoms;
+	}
+
+	/**
+	 * Check whether a symptom was triggered
+	 * @param symptom	The symptom
+	 * @return	True if the probability of fault of the symptom reached the fault threshold
+	 */
+	public boolean isTriggered(SYMPTOM symptom) {
+		return (this.symptoms & (1L << symptom.ordinal())) != 0;
+	}
+
+	/**
+	 * Check whether any symptom was triggered
+	 * @return	True if at least one symptom reached the fault threshold
+	 */
+	public boolean isFault() {
+		return this.symptoms != 0;
+	}
+
+	/**
+	 * Get the plausible root causes of the triggered symptoms
+	 * @return	The plausible root causes. The returned set is the one backing the result.
+	 */
+	public EnumSet<ERROR_CODES> getCauses() {
+		return this.causeSet;
+	}
+
+	/**
+	 * Get the plausible root causes of the triggered symptoms
+	 * @return	The bitmask of the plausible root causes, bit n standing for the error code of ordinal n
+	 */
+	public long getCauseMask() {
+		return this.causes;
+	}
+
+	/**
+	 * Get the root causes explaining all the triggered symptoms
+	 * @return	The bitmask of the root causes shared by all the triggered symptoms, bit n standing for the error code of ordinal n
+	 */
+	public long getCommonCauses() {
+		return SymptomCauses.commonCauses(this.symptoms);
+	}
+
+	/**
+	 * Get the single root cause explaining all the triggered symptoms
+	 * @return	The only root cause shared by all the triggered symptoms, null if there is none or more than one
+	 */
+	public ERROR_CODES getSingleCause() {
+		return SymptomCauses.singleCause(this.symptoms);
+	}
+
+	/**
+	 * Get the number of triggered symptoms pointing to a root cause
+	 * @param cause		The root cause
+	 * @return	The number of triggered symptoms having the cause among their plausible root causes
+	 */
+	public int getEvidence(ERROR_CODES cause) {
+		return SymptomCauses.evidence(this.symptoms, cause);
+	}
+}
@@ -0,0 +1,167 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.isolation.ahu.apar;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import eu.moeebius.fdd.isolation.ahu.apar.ErrorCodes.ERROR_CODES;
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+
+/**
+ * Root cause scoring of a fleet of AHU units in one operation. The N x 28 matrix of symptom probabilities is multiplied by
+ * the 28 x 19 symptom / root cause incidence matrix (@see eu.moeebius.fdd.isolation.ahu.apar.SymptomCauses), so that the
+ * score of a cause is the sum of the probabilities of the symptoms pointing to it. Undefined (NaN) symptoms, e.g. of
+ * empty windows, do not contribute to the scores.
+ */
+public class FleetRootCauseScoring {
+
+	private static final SYMPTOM[] SYMPTOMS = SYMPTOM.values();
+	private static final ERROR_CODES[] CODES = ERROR_CODES.values();
+
+	/**
+	 * The number of root causes, i.e. the number of columns of the score matrix
+	 */
+	public static final int CAUSES = CODES.length;
+
+	/**
+	 * The incidence matrix in row-major order: entry [s * CAUSES + c] is 1 if the cause of ordinal c explains the symptom of ordinal s
+	 */
+	private static final double[] INCIDENCE = new double[SYMPTOMS.length * CAUSES];
+
+	static {
+		for(SYMPTOM symptom : SYMPTOMS){
+			long causes = SymptomCauses.causes(symptom);
+			for(int cc=0; cc < CAUSES; cc++){
+				INCIDENCE[symptom.ordinal() * CAUSES + cc] = (causes >>> cc) & 1L;
+			}
+		}
+	}
+
+	/**
+	 * Get the symptom / root cause incidence matrix
+	 * @return	A new 28 x 19 matrix whose entry (s, c) is 1 if the cause of ordinal c explains the symptom of ordinal s, 0 otherwise.
+	 */
+	public static RealMatrix getIncidenceMatrix() {
+		RealMatrix incidence = new Array2DRowRealMatrix(SYMPTOMS.length, CAUSES);
+		for(int ss=0; ss < SYMPTOMS.length; ss++){
+			for(int cc=0; cc < CAUSES; cc++){
+				incidence.setEntry(ss, cc, INCIDENCE[ss * CAUSES + cc]);
+			}
+		}
+		return incidence;
+	}
+
+	/**
+	 * Calculation of the root cause scores of a fleet of AHU units.
+	 * @param symptoms		The probability of fault for each unit (row) and each of the 28 APAR rules (column).
+	 * @return				The score of each unit (row) and each root cause (column, in the order of {@link ERROR_CODES}).
+	 */
+	public double[][] score(double[][] symptoms) {
+		double[][] scores = new double[symptoms.length][CAUSES];
+		this.score(symptoms, scores);
+		return scores;
+	}
+
+	/**
+	 * Calculation of the root cause scores of a fleet of AHU units into a preallocated matrix.
+	 * @param symptoms		The probability of fault for each unit (row) and each of the 28 APAR rules (column).
+	 * @param scores		The matrix receiving the score of each unit (row) and each root cause (column, in the order of {@link ERROR_CODES}).
+	 */
+	public void score(double[][] symptoms, double[][] scores) {
+		for(int ii=0; ii < symptoms.length; ii++){
+			this.score(symptoms[ii], scores[ii]);
+		}
+	}
+
+	/**
+	 * Calculation of the root cause scores of one AHU unit.
+	 * @param symptoms		The probability of fault for each of the 28 APAR rules.
+	 * @param scores		The array receiving the score of each root cause, in the order of {@link ERROR_CODES}.
+	 */
+	public void score(double[] symptoms, double[] scores) {
+		for(int cc=0; cc < CAUSES; cc++){
+			scores[cc] = 0;
+		}
+		int length = Math.min(symptoms.length, SYMPTOMS.length);
+		for(int ss=0; ss < length; ss++){
+			double probability = symptoms[ss];
+			if(probability != 0 && !Double.isNaN(probability)){
+				int row = ss * CAUSES;
+				for(int cc=0; cc < CAUSES; cc++){
+					scores[cc] += probability * INCIDENCE[row + cc];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Extraction of the highest scoring root causes of one AHU unit. Causes with equal scores are ranked in the order of {@link ERROR_CODES}.
+	 * @param scores		The score of each root cause, in the order of {@link ERROR_CODES}.
+	 * @param k				The maximum number of causes to extract.
+	 * @param causes		The array receiving the causes, highest score first. It must hold at least k elements.
+	 * @return				The number of causes written, at most k. Causes with a score of 0 are never extracted.
+	 * @throws IllegalArgumentException	If k is negative.
+	 */
+	public int top(double[] scores, int k, ERROR_CODES[] causes) {
+		int count = 0;
+		if(k < 0){
+			throw new IllegalArgumentException("The number of causes must not be negative, got " + k);
+		}
+		if(k == 0){
+			return 0;
+		}
+		for(int cc=0; cc < CAUSES; cc++){
+			double score = scores[cc];
+			if(!(score > 0) || (count == k && score <= scores[causes[k-1].ordinal()])){
+				continue;
+			}
+			int position = count < k ? count++ : k-1;
+			while(position > 0 && scores[causes[position-1].ordinal()] < score){
+				causes[position] = causes[position-1];
+				position--;
+			}
+			causes[position] = CODES[cc];
+		}
+		return count;
+	}
+
+	/**
+	 * Extraction of the highest scoring root causes of a fleet of AHU units.
+	 * @param scores		The score of each unit (row) and each root cause (column, in the order of {@link ERROR_CODES}).
+	 * @param k				The maximum number of causes to extract per unit.
+	 * @return				The causes of each unit, highest score first. A row is shorter than k if fewer causes have a positive score.
+	 * @throws IllegalArgumentException	If k is negative.
+	 */
+	public ERROR_CODES[][] top(double[][] scores, int k) {
+		if(k < 0){
+			throw new IllegalArgumentException("The number of causes must not be negative, got " + k);
+		}
+		// no unit has more causes than the incidence matrix
+		k = Math.min(k, CAUSES);
+		ERROR_CODES[][] top = new ERROR_CODES[scores.length][];
+		ERROR_CODES[] causes = new ERROR_CODES[k];
+		for(int ii=0; ii < scores.length; ii++){
+			int count = this.top(scores[ii], k, causes);
+			top[ii] = new ERROR_CODES[count];
+			System.arraycopy(causes, 0, top[ii], 0, count);
+		}
+		return top;
+	}
+}
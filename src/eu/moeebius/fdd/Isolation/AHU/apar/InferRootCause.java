@@ -30,10 +30,15 @@ import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
  */
 public class InferRootCause {
 
+	private static final SYMPTOM[] SYMPTOMS = SYMPTOM.values();
+	private static final String SHORT_LINE = "-----------------------";
+	private static final String LONG_LINE = "----------------------------------------------------------------------------------------------------------------------------------------------------";
+
 	private double faultThreshold = 0.7;
 	private RealMatrix APAR_symptoms;
 	private ErrorCodes errorCodes = new ErrorCodes();
 	private AparSymptoms symptomsText = new AparSymptoms();
+	private SymptomCauses symptomCauses = new SymptomCauses();
 
 	/**
 	 * Instantiates the Diagnosis Engine
@@ -94,515 +99,62 @@ public class InferRootCause {
 	 * Identify the possible root causes of a detected fault and print a summary of the discoveries.
 	 */
 	public void diagnose() {
-		double [] sym = this.APAR_symptoms.getColumn(0);
-		for(int ii=0;ii<sym.length;ii++){
-			if(sym[ii]>=this.faultThreshold){
-				switch (ii) {
-				case 0: 
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule1Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.MixedAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedHCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledHCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.HotWaterSupplyTooLow));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemHotWaterCircPump));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 1:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule2Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ReturnAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.MixedAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.OutdoorAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingMixedBoxDamper));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckMixedBoxDamper));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 2:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule3Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedHCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledHCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.HotWaterSupplyTooLow));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemHotWaterCircPump));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 3:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule4Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedHCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledHCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.HotWaterSupplyTooLow));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemHotWaterCircPump));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 4:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule5Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.OutdoorAirTempSensorError));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 5:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule6Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ReturnAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 6: 
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule7Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.MixedAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 7:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule8Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.OutdoorAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingMixedBoxDamper));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckMixedBoxDamper));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 8: 
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule9Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 9: 
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule10Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.MixedAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.OutdoorAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingMixedBoxDamper));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckMixedBoxDamper));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 10:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule11Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.MixedAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChillerWaterTempSupplyTooHigh));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemChilledWaterCircPump));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChilledWaterNotAvailavleToSeason));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 11: 
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule12Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ReturnAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChillerWaterTempSupplyTooHigh));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemChilledWaterCircPump));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChilledWaterNotAvailavleToSeason));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 12:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule13Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChillerWaterTempSupplyTooHigh));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemChilledWaterCircPump));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChilledWaterNotAvailavleToSeason));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 13:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule14Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChillerWaterTempSupplyTooHigh));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemChilledWaterCircPump));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChilledWaterNotAvailavleToSeason));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 14:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule15Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 15:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule16Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.MixedAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChillerWaterTempSupplyTooHigh));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemChilledWaterCircPump));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChilledWaterNotAvailavleToSeason));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 16:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule17Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ReturnAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChillerWaterTempSupplyTooHigh));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemChilledWaterCircPump));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChilledWaterNotAvailavleToSeason));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 17:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule18Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ReturnAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.MixedAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.OutdoorAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingMixedBoxDamper));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckMixedBoxDamper));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 18:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule19Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChillerWaterTempSupplyTooHigh));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemChilledWaterCircPump));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChilledWaterNotAvailavleToSeason));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 19:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule20Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.SupplyAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckCCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.UndersizedCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.FouledCCoil));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChillerWaterTempSupplyTooHigh));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ProblemChilledWaterCircPump));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ChilledWaterNotAvailavleToSeason));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.LeakingHCoilValve));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.StuckHCoilValve));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 20:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule21Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 21:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule22Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 22:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule23Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 23:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule24Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 24:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule25Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 25:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule26Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ReturnAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.MixedAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.OutdoorAirTempSensorError));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 26:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule27Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.ReturnAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.MixedAirTempSensorError));
-					System.out.println(errorCodes.getErrorCodes().get(ERROR_CODES.OutdoorAirTempSensorError));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
-				case 27:
-					System.out.println("Fault: ");
-					System.out.println("-----------------------");
-					System.out.println(symptomsText.getSymptoms().get(SYMPTOM.Rule28Symptom));
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("Pausible cause(s):");
-					System.out.println("-----------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println("----------------------------------------------------------------------------------------------------------------------------------------------------");
-					System.out.println(" ");
-					System.out.println(" ");
-					break;
+		System.out.print(this.render(this.diagnose(this.APAR_symptoms.getColumn(0))));
+	}
+
+	/**
+	 * Identify the possible root causes of a detected fault without printing anything.
+	 * @param symptoms		The symptoms of faults. These are probabilities of fault for each of the 28 APAR rules.
+	 * @return	The triggered symptoms and their plausible root causes.
+	 */
+	public DiagnosisResult diagnose(double[] symptoms) {
+		return this.diagnose(symptoms, new DiagnosisResult());
+	}
+
+	/**
+	 * Identify the possible root causes of a detected fault without printing anything, reusing an existing result.
+	 * @param symptoms		The symptoms of faults. These are probabilities of fault for each of the 28 APAR rules.
+	 * @param result		The result to be overwritten.
+	 * @return	The given result, holding the triggered symptoms and their plausible root causes.
+	 */
+	public DiagnosisResult diagnose(double[] symptoms, DiagnosisResult result) {
+		long triggered = 0;
+		int length = Math.min(symptoms.length, SYMPTOMS.length);
+		for(int ii=0; ii < length; ii++){
+			if(symptoms[ii] >= this.faultThreshold){
+				triggered |= 1L << ii;
+			}
+		}
+		result.set(triggered);
+		return result;
+	}
+
+	/**
+	 * Render a summary of the discoveries of a diagnosis as text.
+	 * @param result		The result of the diagnosis.
+	 * @return	The summary of every triggered symptom and of its plausible root causes.
+	 */
+	public String render(DiagnosisResult result) {
+		String newLine = System.lineSeparator();
+		StringBuilder text = new StringBuilder();
+		for(SYMPTOM symptom : SYMPTOMS){
+			if(result.isTriggered(symptom)){
+				text.append("Fault: ").append(newLine);
+				text.append(SHORT_LINE).append(newLine);
+				text.append(this.symptomsText.getSymptoms().get(symptom)).append(newLine);
+				text.append(LONG_LINE).append(newLine);
+				text.append("Pausible cause(s):").append(newLine);
+				text.append(SHORT_LINE).append(newLine);
+				for(ERROR_CODES cause : this.symptomCauses.getSymptomCauses().get(symptom)){
+					text.append(this.errorCodes.getErrorCodes().get(cause)).append(newLine);
 				}
+				text.append(LONG_LINE).append(newLine);
+				text.append(LONG_LINE).append(newLine);
+				text.append(LONG_LINE).append(newLine);
+				text.append(" ").append(newLine);
+				text.append(" ").append(newLine);
 			}
 		}
+		return text.toString();
 	}
 }
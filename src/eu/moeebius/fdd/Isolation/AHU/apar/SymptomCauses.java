@@ -0,0 +1,232 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.isolation.ahu.apar;
+import java.util.EnumMap;
+import java.util.EnumSet;
+
+import eu.moeebius.fdd.isolation.ahu.apar.ErrorCodes.ERROR_CODES;
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+
+/**
+ * Definition of the plausible root causes of every APAR symptom. Besides the hash table, the relation is kept as a static
+ * incidence table of bitmasks (bit n of a cause mask standing for the error code of ordinal n, bit n of a symptom mask for
+ * the symptom of ordinal n), so that the causes of any set of symptoms are found with a few bitwise operations.
+ */
+public class SymptomCauses {
+
+	private static final ERROR_CODES[] CODES = ERROR_CODES.values();
+
+	/**
+	 * The mask of the plausible root causes of every symptom, indexed by the symptom ordinal
+	 */
+	private static final long[] CAUSES = new long[SYMPTOM.values().length];
+
+	/**
+	 * The mask of the symptoms pointing to every root cause, indexed by the error code ordinal
+	 */
+	private static final long[] SYMPTOMS = new long[CODES.length];
+
+	static {
+		SymptomCauses symptomCauses = new SymptomCauses();
+		for(SYMPTOM symptom : SYMPTOM.values()){
+			for(ERROR_CODES cause : symptomCauses.getSymptomCauses().get(symptom)){
+				CAUSES[symptom.ordinal()] |= 1L << cause.ordinal();
+				SYMPTOMS[cause.ordinal()] |= 1L << symptom.ordinal();
+			}
+		}
+	}
+
+	/**
+	 * A hash table holding the plausible root causes of every symptom
+	 */
+	private EnumMap<SYMPTOM, EnumSet<ERROR_CODES>> symptom_causes = new EnumMap<SYMPTOM, EnumSet<ERROR_CODES>>(SYMPTOM.class);
+
+	/**
+	 * Instantiation of the symptom causes class
+	 */
+	public SymptomCauses(){
+		this.put(SYMPTOM.Rule1Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.MixedAirTempSensorError,
+				ERROR_CODES.LeakingCCoilValve, ERROR_CODES.StuckCCoilValve, ERROR_CODES.StuckHCoilValve,
+				ERROR_CODES.UndersizedHCoil, ERROR_CODES.FouledHCoil, ERROR_CODES.HotWaterSupplyTooLow,
+				ERROR_CODES.ProblemHotWaterCircPump);
+		this.put(SYMPTOM.Rule2Symptom, ERROR_CODES.ReturnAirTempSensorError, ERROR_CODES.MixedAirTempSensorError,
+				ERROR_CODES.OutdoorAirTempSensorError, ERROR_CODES.LeakingMixedBoxDamper, ERROR_CODES.StuckMixedBoxDamper);
+		this.put(SYMPTOM.Rule3Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.LeakingCCoilValve,
+				ERROR_CODES.StuckCCoilValve, ERROR_CODES.StuckHCoilValve, ERROR_CODES.UndersizedHCoil, ERROR_CODES.FouledHCoil,
+				ERROR_CODES.HotWaterSupplyTooLow, ERROR_CODES.ProblemHotWaterCircPump);
+		this.put(SYMPTOM.Rule4Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.LeakingCCoilValve,
+				ERROR_CODES.StuckCCoilValve, ERROR_CODES.StuckHCoilValve, ERROR_CODES.UndersizedHCoil, ERROR_CODES.FouledHCoil,
+				ERROR_CODES.HotWaterSupplyTooLow, ERROR_CODES.ProblemHotWaterCircPump);
+		this.put(SYMPTOM.Rule5Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.OutdoorAirTempSensorError);
+		this.put(SYMPTOM.Rule6Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.ReturnAirTempSensorError,
+				ERROR_CODES.LeakingHCoilValve, ERROR_CODES.StuckHCoilValve);
+		this.put(SYMPTOM.Rule7Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.MixedAirTempSensorError,
+				ERROR_CODES.LeakingCCoilValve, ERROR_CODES.StuckCCoilValve, ERROR_CODES.LeakingHCoilValve,
+				ERROR_CODES.StuckHCoilValve);
+		this.put(SYMPTOM.Rule8Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.OutdoorAirTempSensorError,
+				ERROR_CODES.LeakingCCoilValve, ERROR_CODES.StuckCCoilValve, ERROR_CODES.LeakingMixedBoxDamper,
+				ERROR_CODES.StuckMixedBoxDamper);
+		this.put(SYMPTOM.Rule9Symptom);
+		this.put(SYMPTOM.Rule10Symptom, ERROR_CODES.MixedAirTempSensorError, ERROR_CODES.OutdoorAirTempSensorError,
+				ERROR_CODES.LeakingMixedBoxDamper, ERROR_CODES.StuckMixedBoxDamper);
+		this.put(SYMPTOM.Rule11Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.MixedAirTempSensorError,
+				ERROR_CODES.StuckCCoilValve, ERROR_CODES.UndersizedCCoil, ERROR_CODES.FouledCCoil,
+				ERROR_CODES.ChillerWaterTempSupplyTooHigh, ERROR_CODES.ProblemChilledWaterCircPump,
+				ERROR_CODES.ChilledWaterNotAvailavleToSeason, ERROR_CODES.LeakingHCoilValve, ERROR_CODES.StuckHCoilValve);
+		this.put(SYMPTOM.Rule12Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.ReturnAirTempSensorError,
+				ERROR_CODES.StuckCCoilValve, ERROR_CODES.UndersizedCCoil, ERROR_CODES.FouledCCoil,
+				ERROR_CODES.ChillerWaterTempSupplyTooHigh, ERROR_CODES.ProblemChilledWaterCircPump,
+				ERROR_CODES.ChilledWaterNotAvailavleToSeason, ERROR_CODES.LeakingHCoilValve, ERROR_CODES.StuckHCoilValve);
+		this.put(SYMPTOM.Rule13Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.StuckCCoilValve,
+				ERROR_CODES.UndersizedCCoil, ERROR_CODES.FouledCCoil, ERROR_CODES.ChillerWaterTempSupplyTooHigh,
+				ERROR_CODES.ProblemChilledWaterCircPump, ERROR_CODES.ChilledWaterNotAvailavleToSeason,
+				ERROR_CODES.LeakingHCoilValve, ERROR_CODES.StuckHCoilValve);
+		this.put(SYMPTOM.Rule14Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.StuckCCoilValve,
+				ERROR_CODES.UndersizedCCoil, ERROR_CODES.FouledCCoil, ERROR_CODES.ChillerWaterTempSupplyTooHigh,
+				ERROR_CODES.ProblemChilledWaterCircPump, ERROR_CODES.ChilledWaterNotAvailavleToSeason,
+				ERROR_CODES.LeakingHCoilValve, ERROR_CODES.StuckHCoilValve);
+		this.put(SYMPTOM.Rule15Symptom);
+		this.put(SYMPTOM.Rule16Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.MixedAirTempSensorError,
+				ERROR_CODES.StuckCCoilValve, ERROR_CODES.UndersizedCCoil, ERROR_CODES.FouledCCoil,
+				ERROR_CODES.ChillerWaterTempSupplyTooHigh, ERROR_CODES.ProblemChilledWaterCircPump,
+				ERROR_CODES.ChilledWaterNotAvailavleToSeason, ERROR_CODES.LeakingHCoilValve, ERROR_CODES.StuckHCoilValve);
+		this.put(SYMPTOM.Rule17Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.ReturnAirTempSensorError,
+				ERROR_CODES.StuckCCoilValve, ERROR_CODES.UndersizedCCoil, ERROR_CODES.FouledCCoil,
+				ERROR_CODES.ChillerWaterTempSupplyTooHigh, ERROR_CODES.ProblemChilledWaterCircPump,
+				ERROR_CODES.ChilledWaterNotAvailavleToSeason, ERROR_CODES.LeakingHCoilValve, ERROR_CODES.StuckHCoilValve);
+		this.put(SYMPTOM.Rule18Symptom, ERROR_CODES.ReturnAirTempSensorError, ERROR_CODES.MixedAirTempSensorError,
+				ERROR_CODES.OutdoorAirTempSensorError, ERROR_CODES.LeakingMixedBoxDamper, ERROR_CODES.StuckMixedBoxDamper);
+		this.put(SYMPTOM.Rule19Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.StuckCCoilValve,
+				ERROR_CODES.UndersizedCCoil, ERROR_CODES.FouledCCoil, ERROR_CODES.ChillerWaterTempSupplyTooHigh,
+				ERROR_CODES.ProblemChilledWaterCircPump, ERROR_CODES.ChilledWaterNotAvailavleToSeason,
+				ERROR_CODES.LeakingHCoilValve, ERROR_CODES.StuckHCoilValve);
+		this.put(SYMPTOM.Rule20Symptom, ERROR_CODES.SupplyAirTempSensorError, ERROR_CODES.StuckCCoilValve,
+				ERROR_CODES.UndersizedCCoil, ERROR_CODES.FouledCCoil, ERROR_CODES.ChillerWaterTempSupplyTooHigh,
+				ERROR_CODES.ProblemChilledWaterCircPump, ERROR_CODES.ChilledWaterNotAvailavleToSeason,
+				ERROR_CODES.LeakingHCoilValve, ERROR_CODES.StuckHCoilValve);
+		this.put(SYMPTOM.Rule21Symptom);
+		this.put(SYMPTOM.Rule22Symptom);
+		this.put(SYMPTOM.Rule23Symptom);
+		this.put(SYMPTOM.Rule24Symptom);
+		this.put(SYMPTOM.Rule25Symptom);
+		this.put(SYMPTOM.Rule26Symptom, ERROR_CODES.ReturnAirTempSensorError, ERROR_CODES.MixedAirTempSensorError,
+				ERROR_CODES.OutdoorAirTempSensorError);
+		this.put(SYMPTOM.Rule27Symptom, ERROR_CODES.ReturnAirTempSensorError, ERROR_CODES.MixedAirTempSensorError,
+				ERROR_CODES.OutdoorAirTempSensorError);
+		this.put(SYMPTOM.Rule28Symptom);
+	}
+
+	private void put(SYMPTOM symptom, ERROR_CODES... causes) {
+		EnumSet<ERROR_CODES> set = EnumSet.noneOf(ERROR_CODES.class);
+		for(ERROR_CODES cause : causes){
+			set.add(cause);
+		}
+		this.symptom_causes.put(symptom, set);
+	}
+
+	/**
+	 * Get the plausible root causes of every symptom
+	 * @return	A hash table holding the plausible root causes of every symptom. A symptom without known causes maps to an empty set.
+	 */
+	public EnumMap<SYMPTOM, EnumSet<ERROR_CODES>> getSymptomCauses() {
+		return this.symptom_causes;
+	}
+
+	/**
+	 * Get the plausible root causes of a symptom
+	 * @param symptom	The symptom
+	 * @return	The mask of the plausible root causes of the symptom
+	 */
+	public static long causes(SYMPTOM symptom) {
+		return CAUSES[symptom.ordinal()];
+	}
+
+	/**
+	 * Get the symptoms pointing to a root cause
+	 * @param cause		The root cause
+	 * @return	The mask of the symptoms having the cause among their plausible root causes
+	 */
+	public static long symptoms(ERROR_CODES cause) {
+		return SYMPTOMS[cause.ordinal()];
+	}
+
+	/**
+	 * Get the plausible root causes of any of a set of symptoms
+	 * @param symptoms	The mask of the symptoms
+	 * @return	The mask of the root causes of at least one of the symptoms
+	 */
+	public static long causes(long symptoms) {
+		long causes = 0;
+		while(symptoms != 0){
+			causes |= CAUSES[Long.numberOfTrailingZeros(symptoms)];
+			symptoms &= symptoms - 1;
+		}
+		return causes;
+	}
+
+	/**
+	 * Get the root causes explaining all of a set of symptoms
+	 * @param symptoms	The mask of the symptoms
+	 * @return	The mask of the root causes shared by all the symptoms, 0 if there are no symptoms
+	 */
+	public static long commonCauses(long symptoms) {
+		long causes = symptoms != 0 ? -1L >>> (Long.SIZE - CODES.length) : 0;
+		while(symptoms != 0){
+			causes &= CAUSES[Long.numberOfTrailingZeros(symptoms)];
+			symptoms &= symptoms - 1;
+		}
+		return causes;
+	}
+
+	/**
+	 * Get the single root cause explaining all of a set of symptoms
+	 * @param symptoms	The mask of the symptoms
+	 * @return	The only root cause shared by all the symptoms, null if there is none or more than one
+	 */
+	public static ERROR_CODES singleCause(long symptoms) {
+		long causes = commonCauses(symptoms);
+		return Long.bitCount(causes) == 1 ? CODES[Long.numberOfTrailingZeros(causes)] : null;
+	}
+
+	/**
+	 * Get the number of symptoms of a set pointing to a root cause
+	 * @param symptoms	The mask of the symptoms
+	 * @param cause		The root cause
+	 * @return	The number of symptoms having the cause among their plausible root causes
+	 */
+	public static int evidence(long symptoms, ERROR_CODES cause) {
+		return Long.bitCount(symptoms & SYMPTOMS[cause.ordinal()]);
+	}
+
+	/**
+	 * Convert a mask of root causes to a set
+	 * @param causes	The mask of the root causes
+	 * @param set		The set to be overwritten
+	 * @return	The given set, holding the root causes of the mask
+	 */
+	public static EnumSet<ERROR_CODES> toSet(long causes, EnumSet<ERROR_CODES> set) {
+		set.clear();
+		while(causes != 0){
+			set.add(CODES[Long.numberOfTrailingZeros(causes)]);
+			causes &= causes - 1;
+		}
+		return set;
+	}
+}
@@ -0,0 +1,84 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+
+/**
+ * Mergeable state of the complete APAR rule set over a chunk of AHU data, one {@link RuleAccumulator} per rule and a
+ * {@link ModeSwitchAccumulator} for Rule #28. The accumulators of consecutive chunks, filled independently (@see
+ * eu.moeebius.fdd.rules.ahu.apar.AparEngine#accumulate), reduce to the symptoms of the whole series.
+ */
+public class AparAccumulator {
+
+	private RuleAccumulator[] rules = new RuleAccumulator[AparEngine.SYMPTOMS-1];
+	private ModeSwitchAccumulator modeSwitches = new ModeSwitchAccumulator();
+
+	/**
+	 * Instantiates an empty accumulator
+	 */
+	public AparAccumulator() {
+		for(int rr=0; rr < this.rules.length; rr++){
+			this.rules[rr] = new RuleAccumulator();
+		}
+	}
+
+	/**
+	 * Appends the chunk of another accumulator, which must directly follow the samples accumulated so far.
+	 * @param next		The accumulator of the following chunk.
+	 */
+	public void merge(AparAccumulator next) {
+		for(int rr=0; rr < this.rules.length; rr++){
+			this.rules[rr].merge(next.rules[rr]);
+		}
+		this.modeSwitches.merge(next.modeSwitches);
+	}
+
+	/**
+	 * Empties the accumulator
+	 */
+	public void clear() {
+		for(int rr=0; rr < this.rules.length; rr++){
+			this.rules[rr].clear();
+		}
+		this.modeSwitches.clear();
+	}
+
+	/**
+	 * Returns the accumulator of a rule
+	 * @param symptom	The symptom of the rule, any but Rule #28
+	 * @return	The accumulator of the rule
+	 */
+	public RuleAccumulator getRule(SYMPTOM symptom) {
+		return this.rules[symptom.ordinal()];
+	}
+
+	RuleAccumulator getRule(int ordinal) {
+		return this.rules[ordinal];
+	}
+
+	/**
+	 * Returns the accumulator of the mode switches counted by Rule #28
+	 * @return	The accumulator of the mode switches
+	 */
+	public ModeSwitchAccumulator getModeSwitches() {
+		return this.modeSwitches;
+	}
+}
@@ -0,0 +1,101 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.util.Arrays;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+
+/**
+ * A sink collecting a stream of AHU samples into blocks of a fixed number of samples and adding each complete block to an
+ * accumulator (@see eu.moeebius.fdd.rules.ahu.apar.AparEngine#accumulate), so that a stream of any length is evaluated with
+ * the memory of a single block.
+ */
+public class AparBlockSink implements AparSampleSink {
+
+	private AparEngine engine;
+	private AparAccumulator accumulator;
+	private double[][] columns;
+	private int length = 0;
+
+	/**
+	 * Instantiates the sink with blocks of {@link AparTelemetryFile#BLOCK} samples
+	 * @param engine		The engine evaluating the rules.
+	 * @param accumulator	The accumulator receiving the violation counts and mode switches.
+	 */
+	public AparBlockSink(AparEngine engine, AparAccumulator accumulator) {
+		this(engine, accumulator, AparTelemetryFile.BLOCK);
+	}
+
+	/**
+	 * Instantiates the sink
+	 * @param engine		The engine evaluating the rules.
+	 * @param accumulator	The accumulator receiving the violation counts and mode switches.
+	 * @param blockSize		The number of samples per block.
+	 */
+	public AparBlockSink(AparEngine engine, AparAccumulator accumulator, int blockSize) {
+		this.engine = engine;
+		this.accumulator = accumulator;
+		this.columns = new double[SIGNAL.values().length][blockSize];
+	}
+
+	@Override
+	public void accept(long timestamp, double tsa, double tsas, double tma, double tra, double toa, double tco,
+			double uhc, double ucc, double ud) {
+		this.columns[SIGNAL.TSA.ordinal()][this.length] = tsa;
+		this.columns[SIGNAL.TSAS.ordinal()][this.length] = tsas;
+		this.columns[SIGNAL.TMA.ordinal()][this.length] = tma;
+		this.columns[SIGNAL.TRA.ordinal()][this.length] = tra;
+		this.columns[SIGNAL.TOA.ordinal()][this.length] = toa;
+		this.columns[SIGNAL.TCO.ordinal()][this.length] = tco;
+		this.columns[SIGNAL.UHC.ordinal()][this.length] = uhc;
+		this.columns[SIGNAL.UCC.ordinal()][this.length] = ucc;
+		this.columns[SIGNAL.UD.ordinal()][this.length] = ud;
+		this.length = this.length+1;
+		if(this.length == this.columns[0].length){
+			this.flush();
+		}
+	}
+
+	/**
+	 * Adds the samples collected so far to the accumulator, even if the block is not complete. Must be called at the end of the stream.
+	 */
+	public void flush() {
+		if(this.length == 0){
+			return;
+		}
+		double[][] block = this.columns;
+		if(this.length < this.columns[0].length){
+			block = new double[this.columns.length][];
+			for(int cc=0; cc < block.length; cc++){
+				block[cc] = Arrays.copyOf(this.columns[cc], this.length);
+			}
+		}
+		this.engine.accumulate(new AparWindow(block[0], block[1], block[2], block[3], block[4], block[5], block[6], block[7], block[8]), this.accumulator);
+		this.length = 0;
+	}
+
+	/**
+	 * Returns the accumulator receiving the violation counts and mode switches
+	 * @return	The accumulator
+	 */
+	public AparAccumulator getAccumulator() {
+		return this.accumulator;
+	}
+}
@@ -0,0 +1,282 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.EnumMap;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+
+/**
+ * Streaming reader of the CSV trend logs exported by a BMS. The file is read from a channel through a reusable byte buffer,
+ * the configured columns are parsed in place (@see eu.moeebius.fdd.rules.ahu.apar.AparNumberParser) and every row is pushed
+ * to a sample sink as soon as it is complete, so that exports of any size are processed with the memory of the buffer. The
+ * first line must be the header naming the columns. Rows with an empty or malformed value in a configured column are skipped
+ * and counted. A reader must not be shared between threads.
+ */
+public class AparCsvReader {
+
+	/**
+	 * The initial size of the read buffer in bytes
+	 */
+	public static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final int SIGNALS = SIGNAL.values().length;
+
+	private String[] names = new String[SIGNALS + 1];
+	private byte delimiter;
+	private ZoneId zone;
+	private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	private int[] fields;
+	private int[] fieldStarts;
+	private int[] fieldEnds;
+	private double[] values = new double[SIGNALS];
+	private long rows;
+	private long skipped;
+
+	/**
+	 * Instantiates a reader of comma separated files whose timestamps without offset are in UTC
+	 * @param columns			The name of the column of each APAR signal. All the signals must be mapped.
+	 * @param timestampColumn	The name of the timestamp column, null to number the samples by their row instead.
+	 */
+	public AparCsvReader(EnumMap<SIGNAL, String> columns, String timestampColumn) {
+		this(columns, timestampColumn, ',', ZoneOffset.UTC);
+	}
+
+	/**
+	 * Instantiates a reader
+	 * @param columns			The name of the column of each APAR signal. All the signals must be mapped.
+	 * @param timestampColumn	The name of the timestamp column, null to number the samples by their row instead. The timestamps
+	 * 							are either milliseconds since the epoch or ISO-8601 date-times, e.g. 2016-05-01 12:00:00.
+	 * @param delimiter			The character separating the columns.
+	 * @param zone				The time zone of the date-times without offset.
+	 */
+	public AparCsvReader(EnumMap<SIGNAL, String> columns, String timestampColumn, char delimiter, ZoneId zone) {
+		for(SIGNAL signal : SIGNAL.values()){
+			if(!columns.containsKey(signal)){
+				throw new IllegalArgumentException("No column configured for signal " + signal);
+			}
+			this.names[signal.ordinal()] = columns.get(signal);
+		}
+		this.names[SIGNALS] = timestampColumn;
+		this.delimiter = (byte) delimiter;
+		this.zone = zone;
+	}
+
+	/**
+	 * Reads a CSV file and pushes its rows to a sink.
+	 * @param path			The path of the file.
+	 * @param sink			The sink receiving the samples.
+	 * @return				The number of samples pushed to the sink.
+	 * @throws IOException	If the file cannot be read.
+	 */
+	public long read(Path path, AparSampleSink sink) throws IOException {
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+			return this.read(channel, sink);
+		}
+	}
+
+	/**
+	 * Reads CSV data from a channel up to its end and pushes its rows to a sink.
+	 * @param channel		The channel providing the data.
+	 * @param sink			The sink receiving the samples.
+	 * @return				The number of samples pushed to the sink.
+	 * @throws IOException	If the channel cannot be read.
+	 */
+	public long read(ReadableByteChannel channel, AparSampleSink sink) throws IOException {
+		this.fields = null;
+		this.rows = 0;
+		this.skipped = 0;
+		((Buffer) this.buffer).clear();
+		long samples = 0;
+		int scanned = 0;
+		boolean eof = false;
+		while(!eof){
+			eof = channel.read(this.buffer) < 0;
+			byte[] bytes = this.buffer.array();
+			int limit = this.buffer.position();
+			int lineStart = 0;
+			for(int ii=scanned; ii < limit; ii++){
+				if(bytes[ii] == '\n'){
+					samples = samples + this.line(bytes, lineStart, ii, sink);
+					lineStart = ii+1;
+				}
+			}
+			if(eof && lineStart < limit){
+				samples = samples + this.line(bytes, lineStart, limit, sink);
+				lineStart = limit;
+			}
+			// the incomplete last line is moved to the start of the buffer, which only grows for lines longer than itself
+			scanned = limit - lineStart;
+			if(lineStart == 0 && limit == this.buffer.capacity()){
+				this.buffer = ByteBuffer.allocate(2 * this.buffer.capacity());
+			}
+			System.arraycopy(bytes, lineStart, this.buffer.array(), 0, scanned);
+			((Buffer) this.buffer).clear();
+			((Buffer) this.buffer).position(scanned);
+		}
+		return samples;
+	}
+
+	private int line(byte[] bytes, int start, int end, AparSampleSink sink) {
+		if(end > start && bytes[end-1] == '\r'){
+			end--;
+		}
+		if(end == start){
+			return 0;
+		}
+		if(this.fields == null){
+			this.header(bytes, start, end);
+			return 0;
+		}
+		this.rows = this.rows+1;
+		this.split(bytes, start, end);
+		long timestamp = this.rows-1;
+		try{
+			for(int ss=0; ss < SIGNALS; ss++){
+				int field = this.fields[ss];
+				if(this.fieldStarts[field] == this.fieldEnds[field]){
+					this.skipped = this.skipped+1;
+					return 0;
+				}
+				this.values[ss] = AparNumberParser.parseDouble(bytes, this.fieldStarts[field], this.fieldEnds[field]);
+			}
+			if(this.fields[SIGNALS] >= 0){
+				int field = this.fields[SIGNALS];
+				timestamp = this.timestamp(bytes, this.fieldStarts[field], this.fieldEnds[field]);
+			}
+		}catch(NumberFormatException | DateTimeParseException e){
+			this.skipped = this.skipped+1;
+			return 0;
+		}
+		sink.accept(timestamp, this.values[SIGNAL.TSA.ordinal()], this.values[SIGNAL.TSAS.ordinal()], this.values[SIGNAL.TMA.ordinal()],
+				this.values[SIGNAL.TRA.ordinal()], this.values[SIGNAL.TOA.ordinal()], this.values[SIGNAL.TCO.ordinal()],
+				this.values[SIGNAL.UHC.ordinal()], this.values[SIGNAL.UCC.ordinal()], this.values[SIGNAL.UD.ordinal()]);
+		return 1;
+	}
+
+	/**
+	 * Locates the fields of a row, without the surrounding quotes and blanks. The missing fields are left empty.
+	 */
+	private void split(byte[] bytes, int start, int end) {
+		Arrays.fill(this.fieldStarts, 0);
+		Arrays.fill(this.fieldEnds, 0);
+		int field = 0;
+		int fieldStart = start;
+		boolean quoted = false;
+		for(int ii=start; ii <= end && field < this.fieldStarts.length; ii++){
+			if(ii < end && bytes[ii] == '"'){
+				quoted = !quoted;
+			}else if(ii == end || (bytes[ii] == this.delimiter && !quoted)){
+				int fieldEnd = ii;
+				while(fieldStart < fieldEnd && (bytes[fieldStart] == ' ' || bytes[fieldStart] == '"')){
+					fieldStart++;
+				}
+				while(fieldEnd > fieldStart && (bytes[fieldEnd-1] == ' ' || bytes[fieldEnd-1] == '"')){
+					fieldEnd--;
+				}
+				this.fieldStarts[field] = fieldStart;
+				this.fieldEnds[field] = fieldEnd;
+				field++;
+				fieldStart = ii+1;
+			}
+		}
+	}
+
+	private void header(byte[] bytes, int start, int end) {
+		// skip the byte order mark written by some exports
+		if(end - start >= 3 && bytes[start] == (byte) 0xEF && bytes[start+1] == (byte) 0xBB && bytes[start+2] == (byte) 0xBF){
+			start = start+3;
+		}
+		int count = 1;
+		boolean quoted = false;
+		for(int ii=start; ii < end; ii++){
+			if(bytes[ii] == '"'){
+				quoted = !quoted;
+			}else if(bytes[ii] == this.delimiter && !quoted){
+				count = count+1;
+			}
+		}
+		this.fieldStarts = new int[count];
+		this.fieldEnds = new int[count];
+		this.split(bytes, start, end);
+		this.fields = new int[SIGNALS + 1];
+		int used = 0;
+		for(int nn=0; nn < this.names.length; nn++){
+			this.fields[nn] = -1;
+			for(int ff=0; ff < count && this.names[nn] != null && this.fields[nn] < 0; ff++){
+				String name = new String(bytes, this.fieldStarts[ff], this.fieldEnds[ff] - this.fieldStarts[ff], StandardCharsets.UTF_8);
+				if(name.equals(this.names[nn])){
+					this.fields[nn] = ff;
+					used = Math.max(used, ff+1);
+				}
+			}
+			if(this.names[nn] != null && this.fields[nn] < 0){
+				this.fields = null;
+				throw new IllegalArgumentException("Column \"" + this.names[nn] + "\" not found in the header");
+			}
+		}
+		// the fields after the last configured one are not located
+		this.fieldStarts = Arrays.copyOf(this.fieldStarts, used);
+		this.fieldEnds = Arrays.copyOf(this.fieldEnds, used);
+	}
+
+	private long timestamp(byte[] bytes, int start, int end) {
+		if(AparNumberParser.isInteger(bytes, start, end)){
+			return AparNumberParser.parseLong(bytes, start, end);
+		}
+		String text = new String(bytes, start, end - start, StandardCharsets.US_ASCII).replace(' ', 'T');
+		TemporalAccessor dateTime = DateTimeFormatter.ISO_DATE_TIME.parseBest(text, ZonedDateTime::from, LocalDateTime::from);
+		if(dateTime instanceof ZonedDateTime){
+			return ((ZonedDateTime) dateTime).toInstant().toEpochMilli();
+		}
+		return ((LocalDateTime) dateTime).atZone(this.zone).toInstant().toEpochMilli();
+	}
+
+	/**
+	 * Returns the number of data rows of the last file read
+	 * @return	The number of data rows
+	 */
+	public long getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * Returns the number of data rows of the last file read that were skipped for an empty or malformed value
+	 * @return	The number of skipped rows
+	 */
+	public long getSkipped() {
+		return this.skipped;
+	}
+}
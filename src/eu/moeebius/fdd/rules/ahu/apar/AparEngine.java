@@ -0,0 +1,619 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.util.Arrays;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
+
+/**
+ * Evaluation of the complete APAR rule set over a window of AHU data in a single pass. The steady-state operation mode
+ * is determined on the fly (@see eu.moeebius.fdd.rules.ahu.apar.DetermineSteadyStateOperationMode) and the symptoms are
+ * identical to the ones returned by the individual rules (Rule1 ... Rule28) when applied with that mode. The engine keeps
+ * no state between calls, so a single instance can be shared between threads.
+ */
+public class AparEngine {
+
+	/**
+	 * The number of symptoms produced by the engine, one per APAR rule
+	 */
+	public static final int SYMPTOMS = SYMPTOM.values().length;
+
+	/**
+	 * The number of samples classified before the rules are counted on them, small enough to keep the block in cache
+	 */
+	private static final int BLOCK = 1024;
+
+	/**
+	 * The steady-state operation mode in which each rule but Rule #28 applies, 0 for the rules valid in all modes
+	 */
+	static final byte[] RULE_MODES = {1, 1, 1, 1, 2, 2, 2, 3, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 5, 5, 5, 5, 0, 0, 0};
+
+	/**
+	 * The kernels of the rules, in the order of {@link SYMPTOM}
+	 */
+	private static final AparKernel[] KERNELS = AparKernel.values();
+	private static final ThreadLocal<DecisionScratch> SCRATCH = ThreadLocal.withInitial(DecisionScratch::new);
+
+	private double dtsf;
+	private double dtrf;
+	private double dtmin;
+	private double qoa_qsa_min;
+	private double et;
+	private double ef;
+	private double ehc;
+	private double ecc;
+	private double ed;
+	private double mtmax;
+	private DetermineOperationMode determineMode;
+	private FddParameterSnapshot parameters;
+
+	/**
+	 * Instantiates the APAR engine with the default FDD parameters
+	 */
+	public AparEngine() {
+		this(FddParameterSnapshot.DEFAULT);
+	}
+
+	/**
+	 * Instantiates the APAR engine
+	 * @param robustFDDparameters		The FDD parameters used by all the rules
+	 */
+	public AparEngine(RobustFDDparameters robustFDDparameters) {
+		this(new FddParameterSnapshot(robustFDDparameters));
+	}
+
+	/**
+	 * Instantiates the APAR engine
+	 * @param parameters		The snapshot of the FDD parameters used by all the rules
+	 */
+	public AparEngine(FddParameterSnapshot parameters) {
+		this.dtsf = parameters.get(FDD_PARAMETERS.DTSF);
+		this.dtrf = parameters.get(FDD_PARAMETERS.DTRF);
+		this.dtmin = parameters.get(FDD_PARAMETERS.DTMIN);
+		this.qoa_qsa_min = parameters.get(FDD_PARAMETERS.QOA_QSA_MIN);
+		this.et = parameters.get(FDD_PARAMETERS.ET);
+		this.ef = parameters.get(FDD_PARAMETERS.EF);
+		this.ehc = parameters.get(FDD_PARAMETERS.EHC);
+		this.ecc = parameters.get(FDD_PARAMETERS.ECC);
+		this.ed = parameters.get(FDD_PARAMETERS.ED);
+		this.mtmax = parameters.get(FDD_PARAMETERS.MTMAX);
+		this.determineMode = new DetermineOperationMode(parameters);
+		this.parameters = parameters;
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms over a window of AHU data.
+	 * @param window		The window of AHU data.
+	 * @return				The probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 */
+	public double[] apply(AparWindow window) {
+		double[] symptoms = new double[SYMPTOMS];
+		this.apply(window, symptoms);
+		return symptoms;
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms over a window of AHU data.
+	 * @param window		The window of AHU data.
+	 * @param symptoms		The array receiving the probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 * @return				The steady-state operation mode of the window.
+	 */
+	public double apply(AparWindow window, double[] symptoms) {
+		double[] uhc = window.getColumn(SIGNAL.UHC);
+		double[] ucc = window.getColumn(SIGNAL.UCC);
+		double[] ud = window.getColumn(SIGNAL.UD);
+		int length = window.getLength();
+		Arrays.fill(symptoms, 0, SYMPTOMS, 0);
+
+		// Each block is classified first and, while every sample seen so far shares the mode of the first one, the
+		// rules are counted on it while it is still in cache. Once the window stops being steady the rules are void
+		// and only the control signals are read to count the mode switches.
+		byte steadyStateMode = length > 0 ? this.determineMode.classify(uhc[0], ud[0], ucc[0]) : 0;
+		byte previousMode = steadyStateMode;
+		double scoreSwitches = 0;
+		for(int start=0; start < length; start += BLOCK){
+			int end = Math.min(length, start + BLOCK);
+			for(int ii=start; ii < end; ii++){
+				byte mode = this.determineMode.classify(uhc[ii], ud[ii], ucc[ii]);
+				if(mode != previousMode){
+					scoreSwitches = scoreSwitches+1;
+					steadyStateMode = 0;
+				}
+				previousMode = mode;
+			}
+			if(steadyStateMode != 0){
+				this.count(steadyStateMode, window, start, end, symptoms);
+			}
+		}
+		this.normalize(steadyStateMode, length, scoreSwitches, symptoms);
+		return steadyStateMode;
+	}
+
+	/**
+	 * Calculation of the mode trace of a window of AHU data with the thresholds of the engine.
+	 * @param window		The window of AHU data.
+	 * @return				The operation mode of every sample of the window.
+	 */
+	public ModeTrace trace(AparWindow window) {
+		return new ModeTrace(this.determineMode, window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.UD), window.getColumn(SIGNAL.UCC), 0, window.getLength());
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms over a window of AHU data whose mode trace is already known. The samples are not classified again
+	 * and no data is read at all when the window is not in steady state.
+	 * @param window		The window of AHU data.
+	 * @param trace			The operation mode of every sample of the window.
+	 * @param symptoms		The array receiving the probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 * @return				The steady-state operation mode of the window.
+	 */
+	public double apply(AparWindow window, ModeTrace trace, double[] symptoms) {
+		int length = window.getLength();
+		byte steadyStateMode = (byte) trace.getSteadyStateMode();
+		Arrays.fill(symptoms, 0, SYMPTOMS, 0);
+		if(steadyStateMode != 0){
+			for(int start=0; start < length; start += BLOCK){
+				this.count(steadyStateMode, window, start, Math.min(length, start + BLOCK), symptoms);
+			}
+		}
+		this.normalize(steadyStateMode, length, trace.getSwitchCount(), symptoms);
+		return steadyStateMode;
+	}
+
+	/**
+	 * Calculation of the samples of a window of AHU data that violate a rule, to drill down into a symptom
+	 * (@see eu.moeebius.fdd.rules.ahu.apar.ViolationBitmaps). The bitmap is empty when the rule does not apply in the steady-state mode of the window.
+	 * @param window		The window of AHU data.
+	 * @param symptom		The symptom of the rule. For Rule #28 the bits are the mode switches.
+	 * @param bitmap		The array receiving the violation bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return				The number of violations, i.e. the number of bits set.
+	 */
+	public int violations(AparWindow window, SYMPTOM symptom, long[] bitmap) {
+		int length = window.getLength();
+		double steadyStateMode = AparKernel.steadyStateMode(this.parameters, window, 0, length);
+		return AparKernel.of(symptom).violations(this.parameters, steadyStateMode, window, 0, length, bitmap);
+	}
+
+	/**
+	 * Decision of every APAR symptom against a fault threshold over a window of AHU data, without computing the probabilities of fault.
+	 * @param window		The window of AHU data.
+	 * @param threshold		The probability of fault at and above which a symptom is a fault, e.g. {@code InferRootCause#getFaultThreshold()}.
+	 * @return				For each of the 28 APAR rules in the order of {@link SYMPTOM}, whether its probability of fault reaches the threshold.
+	 */
+	public boolean[] decide(AparWindow window, double threshold) {
+		boolean[] decisions = new boolean[SYMPTOMS];
+		this.decide(window, threshold, decisions);
+		return decisions;
+	}
+
+	/**
+	 * Decision of every APAR symptom against a fault threshold over a window of AHU data. Each decision is the one of comparing the symptom
+	 * of {@link #apply(AparWindow)} with the threshold, but a rule stops being counted as soon as its violations reach the threshold or can
+	 * no longer reach it in the remaining samples, and the samples are no longer classified once the window is known not to be steady and
+	 * Rule #28 is decided. The rules are counted block by block on their violation bitmaps (@see eu.moeebius.fdd.rules.ahu.apar.AparKernel),
+	 * which read only the samples of the block, in scratch space kept per thread.
+	 * @param window		The window of AHU data.
+	 * @param threshold		The probability of fault at and above which a symptom is a fault, e.g. {@code InferRootCause#getFaultThreshold()}.
+	 * @param decisions		The array receiving, for each of the 28 APAR rules in the order of {@link SYMPTOM}, whether its probability of fault reaches the threshold.
+	 * @return				The steady-state operation mode of the window.
+	 */
+	public double decide(AparWindow window, double threshold, boolean[] decisions) {
+		double[] uhc = window.getColumn(SIGNAL.UHC);
+		double[] ucc = window.getColumn(SIGNAL.UCC);
+		double[] ud = window.getColumn(SIGNAL.UD);
+		int length = window.getLength();
+
+		// Rule #28 reports 0 or 1, so its switches only need counting past mtmax when only 1 reaches the threshold
+		boolean countSwitches = 1 >= threshold && !(0 >= threshold);
+		byte steadyStateMode = length > 0 ? this.determineMode.classify(uhc[0], ud[0], ucc[0]) : 0;
+		byte previousMode = steadyStateMode;
+		double scoreSwitches = 0;
+		for(int ii=1; ii < length; ii++){
+			byte mode = this.determineMode.classify(uhc[ii], ud[ii], ucc[ii]);
+			if(mode != previousMode){
+				scoreSwitches = scoreSwitches+1;
+				steadyStateMode = 0;
+				if(!countSwitches || scoreSwitches > mtmax){
+					break;
+				}
+			}
+			previousMode = mode;
+		}
+		decisions[SYMPTOMS-1] = (scoreSwitches > mtmax ? 1 : 0) >= threshold;
+
+		int needed = needed(length, threshold);
+		DecisionScratch scratch = SCRATCH.get();
+		int[] counts = scratch.counts;
+		boolean[] pending = scratch.pending;
+		long[] bitmap = scratch.bitmap;
+		int undecided = 0;
+		for(int rr=0; rr < SYMPTOMS-1; rr++){
+			// a rule that does not apply counts no violation
+			decisions[rr] = needed == 0;
+			counts[rr] = 0;
+			pending[rr] = steadyStateMode != 0 && (RULE_MODES[rr] == 0 || RULE_MODES[rr] == steadyStateMode) && needed > 0 && needed <= length;
+			if(pending[rr]){
+				undecided = undecided+1;
+			}
+		}
+		for(int start=0; start < length && undecided > 0; start += BLOCK){
+			int blockLength = Math.min(BLOCK, length - start);
+			int remaining = length - start - blockLength;
+			for(int rr=0; rr < SYMPTOMS-1; rr++){
+				if(pending[rr]){
+					counts[rr] = counts[rr] + KERNELS[rr].violations(this.parameters, steadyStateMode, window, start, blockLength, bitmap);
+					if(counts[rr] >= needed || counts[rr] + remaining < needed){
+						decisions[rr] = counts[rr] >= needed;
+						pending[rr] = false;
+						undecided = undecided-1;
+					}
+				}
+			}
+		}
+		return steadyStateMode;
+	}
+
+	/**
+	 * Calculation of the steady-state runs of a series of AHU data with the thresholds of the engine.
+	 * @param window		The series of AHU data, of any length.
+	 * @return				The maximal steady-state runs of the series.
+	 */
+	public SteadyStateRuns segment(AparWindow window) {
+		return new SteadyStateRuns(this.trace(window));
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms over one steady-state run of a series of AHU data. The symptoms are identical to the ones
+	 * of {@link #apply(AparWindow)} on a window holding only the samples of the run, in particular Rule #28 is 0.
+	 * @param window		The series of AHU data.
+	 * @param runs			The steady-state runs of the series.
+	 * @param run			The index of the run.
+	 * @param symptoms		The array receiving the probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 * @return				The steady-state operation mode of the run.
+	 */
+	public double apply(AparWindow window, SteadyStateRuns runs, int run, double[] symptoms) {
+		byte mode = runs.getMode(run);
+		Arrays.fill(symptoms, 0, SYMPTOMS, 0);
+		this.count(mode, window, runs.getStart(run), runs.getEnd(run), symptoms);
+		this.normalize(mode, runs.getLength(run), 0, symptoms);
+		return mode;
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms over a whole series of AHU data, aggregated over its steady-state runs. Each rule reports the
+	 * share of the samples violating it among the samples of the runs in which it applies, so that every run weighs by its length, and
+	 * 0 if no such sample exists. The maximum number of mode switches of Rule #28 holds per hour, so the rule compares the mean number of
+	 * switches per hour of the whole series with it, a series shorter than an hour counting as one hour. The worst hour of a series is
+	 * reported by {@link ModeSwitchTracker}.
+	 * @param window		The series of AHU data.
+	 * @param runs			The steady-state runs of the series.
+	 * @param minLength		The number of samples below which a run is considered a transient and skipped, e.g. the mode switch delay over the sample period.
+	 * @param samplePeriod	The time between two samples of the series in milliseconds.
+	 * @param symptoms		The array receiving the probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 * @return				The number of samples of the runs that were evaluated.
+	 * @throws IllegalArgumentException	If the sample period is not positive.
+	 */
+	public int aggregate(AparWindow window, SteadyStateRuns runs, int minLength, long samplePeriod, double[] symptoms) {
+		int[] modeLengths = new int[6];
+		int evaluated = this.count(window, runs, minLength, symptoms, modeLengths);
+		for(int rr=0; rr < SYMPTOMS-1; rr++){
+			int eligible = RULE_MODES[rr] == 0 ? evaluated : modeLengths[RULE_MODES[rr]];
+			symptoms[rr] = eligible > 0 ? symptoms[rr]/eligible : 0;
+		}
+		symptoms[SYMPTOMS-1] = this.hourlySwitches(runs.getSwitchCount(), window.getLength(), samplePeriod);
+		return evaluated;
+	}
+
+	/**
+	 * Adds a chunk of AHU data to an accumulator. The chunks of a long series can be accumulated independently, e.g. on different
+	 * threads or processes, and merged in their chronological order (@see eu.moeebius.fdd.rules.ahu.apar.AparAccumulator#merge).
+	 * @param window		The chunk of AHU data, which directly follows the samples accumulated so far.
+	 * @param accumulator	The accumulator receiving the violation counts and mode switches of the chunk.
+	 */
+	public void accumulate(AparWindow window, AparAccumulator accumulator) {
+		SteadyStateRuns runs = this.segment(window);
+		double[] counts = new double[SYMPTOMS];
+		int[] modeLengths = new int[6];
+		int length = this.count(window, runs, 0, counts, modeLengths);
+		for(int rr=0; rr < SYMPTOMS-1; rr++){
+			accumulator.getRule(rr).add((long) counts[rr], RULE_MODES[rr] == 0 ? length : modeLengths[RULE_MODES[rr]]);
+		}
+		accumulator.getModeSwitches().add(runs);
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms of the series accumulated. The symptoms are identical to the ones of {@link #apply(AparWindow)}
+	 * on a window holding all the samples accumulated, however the series was split into chunks.
+	 * @param accumulator	The accumulator of the series.
+	 * @param symptoms		The array receiving the probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 * @return				The steady-state operation mode of the series.
+	 */
+	public double apply(AparAccumulator accumulator, double[] symptoms) {
+		ModeSwitchAccumulator modeSwitches = accumulator.getModeSwitches();
+		byte steadyStateMode = modeSwitches.getSteadyStateMode();
+		for(int rr=0; rr < SYMPTOMS-1; rr++){
+			symptoms[rr] = accumulator.getRule(rr).getViolations();
+		}
+		this.normalize(steadyStateMode, modeSwitches.getLength(), modeSwitches.getSwitchCount(), symptoms);
+		return steadyStateMode;
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms of the series accumulated, aggregated over its steady-state runs. The symptoms are identical to
+	 * the ones of {@link #aggregate(AparWindow, SteadyStateRuns, int, long, double[])} on the whole series without skipping any run, in
+	 * particular Rule #28 compares the mean number of mode switches per hour of the series with the maximum.
+	 * @param accumulator	The accumulator of the series.
+	 * @param samplePeriod	The time between two samples of the series in milliseconds.
+	 * @param symptoms		The array receiving the probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 * @throws IllegalArgumentException	If the sample period is not positive.
+	 */
+	public void aggregate(AparAccumulator accumulator, long samplePeriod, double[] symptoms) {
+		ModeSwitchAccumulator modeSwitches = accumulator.getModeSwitches();
+		for(int rr=0; rr < SYMPTOMS-1; rr++){
+			symptoms[rr] = accumulator.getRule(rr).getResult();
+		}
+		symptoms[SYMPTOMS-1] = this.hourlySwitches(modeSwitches.getSwitchCount(), modeSwitches.getLength(), samplePeriod);
+	}
+
+	/**
+	 * Calculation of the rules violated by a single sample of a window, with the kernels of the rules. Only the rules of the mode
+	 * of the sample and the rules valid in all modes are tested, since the other rules are void in any steady-state window
+	 * containing the sample.
+	 * @param mode		The operation mode of the sample (@see eu.moeebius.fdd.rules.ahu.apar.DetermineOperationMode).
+	 * @param window	The window holding the sample.
+	 * @param index		The index of the sample in the window.
+	 * @param bitmap	The scratch array of at least one word receiving the bitmap of each rule.
+	 * @return			The violated rules, bit r standing for the symptom of ordinal r.
+	 */
+	public int violations(byte mode, AparWindow window, int index, long[] bitmap) {
+		int bits = 0;
+		for(int rr=0; rr < SYMPTOMS-1; rr++){
+			if(RULE_MODES[rr] == 0 || RULE_MODES[rr] == mode){
+				bits |= KERNELS[rr].violations(this.parameters, mode, window, index, 1, bitmap) << rr;
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Returns the FDD parameters used by the engine
+	 * @return	The snapshot of the FDD parameters
+	 */
+	public FddParameterSnapshot getParameters() {
+		return this.parameters;
+	}
+
+	/**
+	 * Returns the module classifying the operation mode of the samples with the thresholds of the engine
+	 * @return	The module classifying the operation mode of the samples
+	 */
+	public DetermineOperationMode getDetermineOperationMode() {
+		return this.determineMode;
+	}
+
+	/**
+	 * Returns the maximum number of mode switches of a window before Rule #28 reports a fault
+	 * @return	The maximum number of mode switches
+	 */
+	public double getMaxModeSwitches() {
+		return this.mtmax;
+	}
+
+	/**
+	 * Turns the violation counts into probabilities of fault and sets the result of Rule #28.
+	 */
+	private void normalize(byte steadyStateMode, long length, double scoreSwitches, double[] symptoms) {
+		if(steadyStateMode == 0){
+			Arrays.fill(symptoms, 0, SYMPTOMS-1, 0);
+		}
+		for(int rr=0; rr < SYMPTOMS-1; rr++){
+			symptoms[rr] = symptoms[rr]/length;
+		}
+		symptoms[SYMPTOMS-1] = scoreSwitches > mtmax ? 1 : 0;
+	}
+
+	/**
+	 * Returns the result of Rule #28 for a series, whose mean number of mode switches per hour is compared with the maximum.
+	 */
+	private double hourlySwitches(long switchCount, long length, long samplePeriod) {
+		if(samplePeriod <= 0){
+			throw new IllegalArgumentException("The sample period must be positive, got " + samplePeriod);
+		}
+		double hours = Math.max(ModeSwitchTracker.HOUR, (double) length*samplePeriod)/ModeSwitchTracker.HOUR;
+		return switchCount/hours > mtmax ? 1 : 0;
+	}
+
+	/**
+	 * Returns the smallest number of violations whose probability of fault, computed as by {@link #normalize}, reaches the threshold,
+	 * or length+1 if there is none. The ratio is monotone in the count, so a count decides the symptom exactly by comparison with it.
+	 */
+	private static int needed(int length, double threshold) {
+		if(length == 0 || Double.isNaN(threshold)){
+			// the probability of fault of an empty window is NaN and reaches no threshold
+			return length+1;
+		}
+		long count = (long) Math.max(0, Math.min(length+1, Math.ceil(threshold*length)));
+		while(count > 0 && (double) (count-1)/length >= threshold){
+			count = count-1;
+		}
+		while(count <= length && !((double) count/length >= threshold)){
+			count = count+1;
+		}
+		return (int) count;
+	}
+
+	/**
+	 * Adds the violations of every steady-state run of at least minLength samples and their lengths per operation mode.
+	 */
+	private int count(AparWindow window, SteadyStateRuns runs, int minLength, double[] symptoms, int[] modeLengths) {
+		Arrays.fill(symptoms, 0, SYMPTOMS, 0);
+		int evaluated = 0;
+		for(int rr=0; rr < runs.getCount(); rr++){
+			int length = runs.getLength(rr);
+			if(length >= minLength){
+				this.count(runs.getMode(rr), window, runs.getStart(rr), runs.getEnd(rr), symptoms);
+				modeLengths[runs.getMode(rr)] += length;
+				evaluated = evaluated + length;
+			}
+		}
+		return evaluated;
+	}
+
+	/**
+	 * Adds the violations of the rules of a steady-state mode and of the rules valid in all modes over the samples [start, end).
+	 * The predicates are a deliberate copy of the ones of Rule1 ... Rule27, fused so that the columns are read once per mode
+	 * instead of once per rule; {@link eu.moeebius.tests.simpletests.TestAparEngine} keeps both bit-identical, so a change to a
+	 * rule must be made here too.
+	 */
+	private void count(byte steadyStateMode, AparWindow window, int start, int end, double[] symptoms) {
+		double[] tsa = window.getColumn(SIGNAL.TSA);
+		double[] tsas = window.getColumn(SIGNAL.TSAS);
+		double[] tma = window.getColumn(SIGNAL.TMA);
+		double[] tra = window.getColumn(SIGNAL.TRA);
+		double[] toa = window.getColumn(SIGNAL.TOA);
+		double[] tco = window.getColumn(SIGNAL.TCO);
+		double[] uhc = window.getColumn(SIGNAL.UHC);
+		double[] ucc = window.getColumn(SIGNAL.UCC);
+		double[] ud = window.getColumn(SIGNAL.UD);
+		switch(steadyStateMode){
+		case 1:
+			for(int ii=start; ii < end; ii++){
+				if(tsa[ii] < (tma[ii] + dtsf - et)){
+					symptoms[0] = symptoms[0]+1;
+				}
+				if(Math.abs(tra[ii] - tma[ii]) >= dtmin){
+					double Qoa = tma[ii] - tra[ii];
+					double Qsa = toa[ii] - tra[ii];
+					if(Math.abs(Qoa/Qsa - qoa_qsa_min) > ef){
+						symptoms[1] = symptoms[1]+1;
+					}
+				}
+				if(Math.abs(uhc[ii] - 1) <= ehc){
+					if(tsas[ii] - tsa[ii] >= et){
+						symptoms[2] = symptoms[2]+1;
+					}
+					symptoms[3] = symptoms[3]+1;
+				}
+			}
+			break;
+		case 2:
+			for(int ii=start; ii < end; ii++){
+				if(toa[ii] > tsas[ii] - dtsf + et){
+					symptoms[4] = symptoms[4]+1;
+				}
+				if(tsa[ii] > tra[ii] - dtrf + et){
+					symptoms[5] = symptoms[5]+1;
+				}
+				if(Math.abs(tsa[ii] - dtsf - tma[ii]) > et){
+					symptoms[6] = symptoms[6]+1;
+				}
+			}
+			break;
+		case 3:
+			for(int ii=start; ii < end; ii++){
+				if(toa[ii] < tsas[ii] - dtsf - et){
+					symptoms[7] = symptoms[7]+1;
+				}
+				if(toa[ii] > tco[ii] + et){
+					symptoms[8] = symptoms[8]+1;
+				}
+				if(Math.abs(toa[ii] - tma[ii]) > et){
+					symptoms[9] = symptoms[9]+1;
+				}
+				if(tsa[ii] > tma[ii] + dtsf + et){
+					symptoms[10] = symptoms[10]+1;
+				}
+				if(tsa[ii] > tra[ii] - dtrf + et){
+					symptoms[11] = symptoms[11]+1;
+				}
+				if(Math.abs(ucc[ii] - 1) < ecc){
+					if(tsa[ii] - tsas[ii] >= et){
+						symptoms[12] = symptoms[12]+1;
+					}
+					symptoms[13] = symptoms[13]+1;
+				}
+			}
+			break;
+		case 4:
+			for(int ii=start; ii < end; ii++){
+				if(toa[ii] < tco[ii] - et){
+					symptoms[14] = symptoms[14]+1;
+				}
+				if(tsa[ii] > tma[ii] + dtsf + et){
+					symptoms[15] = symptoms[15]+1;
+				}
+				if(tsa[ii] > tra[ii] - dtrf + et){
+					symptoms[16] = symptoms[16]+1;
+				}
+				if(Math.abs(tra[ii] - tma[ii]) >= dtmin){
+					double Qoa = tma[ii] - tra[ii];
+					double Qsa = toa[ii] - tra[ii];
+					if(Math.abs(Qoa/Qsa - qoa_qsa_min) > ef){
+						symptoms[17] = symptoms[17]+1;
+					}
+				}
+				if(Math.abs(ucc[ii] - 1) < ecc){
+					if(tsa[ii] - tsas[ii] >= et){
+						symptoms[18] = symptoms[18]+1;
+					}
+					symptoms[19] = symptoms[19]+1;
+				}
+			}
+			break;
+		default:
+			for(int ii=start; ii < end; ii++){
+				if(ucc[ii] > ecc && uhc[ii] > ehc && ud[ii] > ed && ud[ii] < (1 - ed)){
+					symptoms[20] = symptoms[20]+1;
+				}
+				if(uhc[ii] > ehc && ucc[ii] > ecc){
+					symptoms[21] = symptoms[21]+1;
+				}
+				if(uhc[ii] > ehc && ud[ii] > ed){
+					symptoms[22] = symptoms[22]+1;
+				}
+				if(ud[ii] > ed && ud[ii] < (1 - ed) &&  ucc[ii] > ecc){
+					symptoms[23] = symptoms[23]+1;
+				}
+			}
+			break;
+		}
+		for(int ii=start; ii < end; ii++){
+			if(Math.abs(tsa[ii] - tsas[ii]) > et){
+				symptoms[24] = symptoms[24]+1;
+			}
+			if(tma[ii] < Math.min(tra[ii],  toa[ii]) - et){
+				symptoms[25] = symptoms[25]+1;
+			}
+			if(tma[ii] > Math.max(tra[ii],  toa[ii]) + et){
+				symptoms[26] = symptoms[26]+1;
+			}
+		}
+	}
+
+	/**
+	 * Scratch space of the decisions, one per thread since the engine is shared between threads
+	 */
+	private static final class DecisionScratch {
+		private final int[] counts = new int[SYMPTOMS-1];
+		private final boolean[] pending = new boolean[SYMPTOMS-1];
+		private final long[] bitmap = new long[ViolationBitmaps.words(BLOCK)];
+	}
+}
@@ -0,0 +1,138 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
+
+/**
+ * Timing of the APAR rule evaluation for one AHU unit. The gate suppresses the samples during the occupancy delay after the
+ * unit becomes occupied and during the mode switch delay after every change of the operation mode, and splits the remaining
+ * samples into rule windows of the rule delay. Its state is a handful of fields, whatever the sample rate.
+ */
+public class AparGate {
+
+	/**
+	 * The decision of the gate for a sample
+	 */
+	public enum DECISION{
+		/**
+		 * The sample falls within the occupancy or mode switch delay. It must be discarded together with the rule window collected so far.
+		 */
+		SUPPRESS,
+		/**
+		 * The sample must be added to the current rule window.
+		 */
+		ACCUMULATE,
+		/**
+		 * The current rule window is complete and must be evaluated before the sample is added. The sample starts the next rule window.
+		 */
+		EVALUATE
+	}
+
+	private static final long MINUTE = 60L * 1000L;
+
+	private long occupancyDelay;
+	private long modeDelay;
+	private long ruleDelay;
+	private boolean occupied = false;
+	private byte mode = 0;
+	private long occupiedSince;
+	private long modeSince;
+	private long windowStart;
+	private boolean windowOpen = false;
+
+	/**
+	 * Instantiates the gate with the default FDD parameters
+	 */
+	public AparGate() {
+		this(FddParameterSnapshot.DEFAULT);
+	}
+
+	/**
+	 * Instantiates the gate
+	 * @param robustFDDparameters		The FDD parameters providing the occupancy, mode switch and rule delays in minutes.
+	 */
+	public AparGate(RobustFDDparameters robustFDDparameters) {
+		this(new FddParameterSnapshot(robustFDDparameters));
+	}
+
+	/**
+	 * Instantiates the gate
+	 * @param parameters		The snapshot of the FDD parameters providing the occupancy, mode switch and rule delays in minutes.
+	 */
+	public AparGate(FddParameterSnapshot parameters) {
+		this.occupancyDelay = (long) (parameters.get(FDD_PARAMETERS.OCC_DLY) * MINUTE);
+		this.modeDelay = (long) (parameters.get(FDD_PARAMETERS.MODE_DLY) * MINUTE);
+		this.ruleDelay = (long) (parameters.get(FDD_PARAMETERS.RULE_DLY) * MINUTE);
+	}
+
+	/**
+	 * Decides what to do with a sample.
+	 * @param timestamp		The time of the sample in milliseconds. Samples must arrive in chronological order.
+	 * @param occupied		True if the building served by the AHU unit is occupied.
+	 * @param mode			The operation mode of the sample (@see eu.moeebius.fdd.rules.ahu.apar.DetermineOperationMode).
+	 * @return				The decision for the sample.
+	 */
+	public DECISION accept(long timestamp, boolean occupied, byte mode) {
+		if(!occupied){
+			this.occupied = false;
+			this.windowOpen = false;
+			return DECISION.SUPPRESS;
+		}
+		if(!this.occupied){
+			this.occupied = true;
+			this.occupiedSince = timestamp;
+		}
+		if(mode != this.mode){
+			this.mode = mode;
+			this.modeSince = timestamp;
+			this.windowOpen = false;
+		}
+		if(timestamp - this.occupiedSince < this.occupancyDelay || timestamp - this.modeSince < this.modeDelay){
+			return DECISION.SUPPRESS;
+		}
+		if(!this.windowOpen){
+			this.windowOpen = true;
+			this.windowStart = timestamp;
+			return DECISION.ACCUMULATE;
+		}
+		if(timestamp - this.windowStart >= this.ruleDelay){
+			this.windowStart = timestamp;
+			return DECISION.EVALUATE;
+		}
+		return DECISION.ACCUMULATE;
+	}
+
+	/**
+	 * Returns the operation mode of the last occupied sample, 0 before the first one
+	 * @return	The operation mode of the last occupied sample
+	 */
+	public byte getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * Returns true while a rule window is being collected
+	 * @return	True while a rule window is being collected
+	 */
+	public boolean isWindowOpen() {
+		return this.windowOpen;
+	}
+}
@@ -18,6 +18,7 @@
  *****************************************************************************/
 
 package eu.moeebius.fdd.rules.ahu.apar;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.RealMatrix;
 
 
@@ -69,4 +70,35 @@ public interface AparInterface {
      * @return	The result of the rule application
      */
 	double apply();
+
+    /**
+     * Returns the result of the rule application on primitive columns. The rules of this package bypass the inputs matrix without
+     * any allocation; by default the columns are copied into a new inputs matrix, which replaces the inputs of the rule.
+     * @param steadyStateMode	The steady-state operation mode of the AHU unit (@see eu.moeebius.FDD.Rules.AHU.APAR.DetermineSteadyStateOperationMode)
+     * @param columns	The inputs of the rule, one array per column in the same order as the columns of the inputs matrix
+     * @return	The result of the rule application
+     */
+	default double apply(double steadyStateMode, double[][] columns) {
+		return this.apply(steadyStateMode, 0, columns[0].length, columns);
+	}
+
+    /**
+     * Returns the result of the rule application on a slice of primitive columns. The rules of this package bypass the inputs matrix
+     * without any allocation; by default the slice is copied into a new inputs matrix, which replaces the inputs of the rule.
+     * @param steadyStateMode	The steady-state operation mode of the AHU unit (@see eu.moeebius.FDD.Rules.AHU.APAR.DetermineSteadyStateOperationMode)
+     * @param offset	The index of the first sample of the slice
+     * @param length	The number of samples of the slice
+     * @param columns	The inputs of the rule, one array per column in the same order as the columns of the inputs matrix
+     * @return	The result of the rule application
+     */
+	default double apply(double steadyStateMode, int offset, int length, double[][] columns) {
+		RealMatrix inputs = new Array2DRowRealMatrix(length, columns.length);
+		for(int cc=0; cc < columns.length; cc++){
+			for(int ii=0; ii < length; ii++){
+				inputs.setEntry(ii, cc, columns[cc][offset + ii]);
+			}
+		}
+		this.setInputs(steadyStateMode, inputs);
+		return this.apply();
+	}
 }
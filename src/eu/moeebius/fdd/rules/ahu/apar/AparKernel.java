@@ -0,0 +1,580 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
+
+/**
+ * Stateless kernels of the APAR rules, one per rule in the order of {@link SYMPTOM}. A kernel is a pure function of the
+ * FDD parameters, the steady-state operation mode and a slice of a window of AHU data, computing the same value as the
+ * corresponding rule (Rule1 ... Rule28) with the same code. The kernels read only the samples of their slice and keep
+ * no state, so a single set serves any number of threads.
+ */
+public enum AparKernel {
+
+	/**
+	 * Kernel of Rule #1 (@see eu.moeebius.fdd.rules.ahu.apar.Rule1)
+	 */
+	RULE1 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule1.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule1.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #2 (@see eu.moeebius.fdd.rules.ahu.apar.Rule2)
+	 */
+	RULE2 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule2.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TRA), window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTMIN), parameters.get(FDD_PARAMETERS.QOA_QSA_MIN), parameters.get(FDD_PARAMETERS.EF));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule2.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TRA), window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTMIN), parameters.get(FDD_PARAMETERS.QOA_QSA_MIN), parameters.get(FDD_PARAMETERS.EF), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #3 (@see eu.moeebius.fdd.rules.ahu.apar.Rule3)
+	 */
+	RULE3 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule3.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.TSAS), window.getColumn(SIGNAL.TSA),
+					parameters.get(FDD_PARAMETERS.EHC), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule3.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.TSAS), window.getColumn(SIGNAL.TSA),
+					parameters.get(FDD_PARAMETERS.EHC), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #4 (@see eu.moeebius.fdd.rules.ahu.apar.Rule4)
+	 */
+	RULE4 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule4.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.UHC), parameters.get(FDD_PARAMETERS.EHC));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule4.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.UHC), parameters.get(FDD_PARAMETERS.EHC), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #5 (@see eu.moeebius.fdd.rules.ahu.apar.Rule5)
+	 */
+	RULE5 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule5.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TSAS),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule5.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TSAS),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #6 (@see eu.moeebius.fdd.rules.ahu.apar.Rule6)
+	 */
+	RULE6 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule6.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TRA),
+					parameters.get(FDD_PARAMETERS.DTRF), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule6.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TRA),
+					parameters.get(FDD_PARAMETERS.DTRF), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #7 (@see eu.moeebius.fdd.rules.ahu.apar.Rule7)
+	 */
+	RULE7 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule7.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule7.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #8 (@see eu.moeebius.fdd.rules.ahu.apar.Rule8)
+	 */
+	RULE8 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule8.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TSAS),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule8.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TSAS),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #9 (@see eu.moeebius.fdd.rules.ahu.apar.Rule9)
+	 */
+	RULE9 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule9.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TCO), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule9.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TCO), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #10 (@see eu.moeebius.fdd.rules.ahu.apar.Rule10)
+	 */
+	RULE10 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule10.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TMA), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule10.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TMA), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #11 (@see eu.moeebius.fdd.rules.ahu.apar.Rule11)
+	 */
+	RULE11 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule11.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule11.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #12 (@see eu.moeebius.fdd.rules.ahu.apar.Rule12)
+	 */
+	RULE12 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule12.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TRA),
+					parameters.get(FDD_PARAMETERS.DTRF), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule12.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TRA),
+					parameters.get(FDD_PARAMETERS.DTRF), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #13 (@see eu.moeebius.fdd.rules.ahu.apar.Rule13)
+	 */
+	RULE13 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule13.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.UCC), window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TSAS),
+					parameters.get(FDD_PARAMETERS.ECC), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule13.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.UCC), window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TSAS),
+					parameters.get(FDD_PARAMETERS.ECC), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #14 (@see eu.moeebius.fdd.rules.ahu.apar.Rule14)
+	 */
+	RULE14 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule14.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.UCC), parameters.get(FDD_PARAMETERS.ECC));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule14.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.UCC), parameters.get(FDD_PARAMETERS.ECC), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #15 (@see eu.moeebius.fdd.rules.ahu.apar.Rule15)
+	 */
+	RULE15 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule15.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TCO), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule15.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TCO), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #16 (@see eu.moeebius.fdd.rules.ahu.apar.Rule16)
+	 */
+	RULE16 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule16.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule16.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTSF), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #17 (@see eu.moeebius.fdd.rules.ahu.apar.Rule17)
+	 */
+	RULE17 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule17.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TRA),
+					parameters.get(FDD_PARAMETERS.DTRF), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule17.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TRA),
+					parameters.get(FDD_PARAMETERS.DTRF), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #18 (@see eu.moeebius.fdd.rules.ahu.apar.Rule18)
+	 */
+	RULE18 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule18.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TRA), window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTMIN), parameters.get(FDD_PARAMETERS.QOA_QSA_MIN), parameters.get(FDD_PARAMETERS.EF));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule18.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TRA), window.getColumn(SIGNAL.TOA), window.getColumn(SIGNAL.TMA),
+					parameters.get(FDD_PARAMETERS.DTMIN), parameters.get(FDD_PARAMETERS.QOA_QSA_MIN), parameters.get(FDD_PARAMETERS.EF), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #19 (@see eu.moeebius.fdd.rules.ahu.apar.Rule19)
+	 */
+	RULE19 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule19.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.UCC), window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TSAS),
+					parameters.get(FDD_PARAMETERS.ECC), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule19.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.UCC), window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TSAS),
+					parameters.get(FDD_PARAMETERS.ECC), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #20 (@see eu.moeebius.fdd.rules.ahu.apar.Rule20)
+	 */
+	RULE20 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule20.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.UCC), parameters.get(FDD_PARAMETERS.ECC));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule20.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.UCC), parameters.get(FDD_PARAMETERS.ECC), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #21 (@see eu.moeebius.fdd.rules.ahu.apar.Rule21)
+	 */
+	RULE21 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule21.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.UCC), window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.UD),
+					parameters.get(FDD_PARAMETERS.ECC), parameters.get(FDD_PARAMETERS.EHC), parameters.get(FDD_PARAMETERS.ED));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule21.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.UCC), window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.UD),
+					parameters.get(FDD_PARAMETERS.ECC), parameters.get(FDD_PARAMETERS.EHC), parameters.get(FDD_PARAMETERS.ED), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #22 (@see eu.moeebius.fdd.rules.ahu.apar.Rule22)
+	 */
+	RULE22 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule22.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.UCC),
+					parameters.get(FDD_PARAMETERS.EHC), parameters.get(FDD_PARAMETERS.ECC));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule22.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.UCC),
+					parameters.get(FDD_PARAMETERS.EHC), parameters.get(FDD_PARAMETERS.ECC), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #23 (@see eu.moeebius.fdd.rules.ahu.apar.Rule23)
+	 */
+	RULE23 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule23.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.UD),
+					parameters.get(FDD_PARAMETERS.EHC), parameters.get(FDD_PARAMETERS.ED));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule23.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.UD),
+					parameters.get(FDD_PARAMETERS.EHC), parameters.get(FDD_PARAMETERS.ED), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #24 (@see eu.moeebius.fdd.rules.ahu.apar.Rule24)
+	 */
+	RULE24 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule24.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.UD), window.getColumn(SIGNAL.UCC),
+					parameters.get(FDD_PARAMETERS.ED), parameters.get(FDD_PARAMETERS.ECC));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule24.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.UD), window.getColumn(SIGNAL.UCC),
+					parameters.get(FDD_PARAMETERS.ED), parameters.get(FDD_PARAMETERS.ECC), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #25 (@see eu.moeebius.fdd.rules.ahu.apar.Rule25)
+	 */
+	RULE25 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule25.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TSAS), parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule25.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TSA), window.getColumn(SIGNAL.TSAS), parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #26 (@see eu.moeebius.fdd.rules.ahu.apar.Rule26)
+	 */
+	RULE26 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule26.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TMA), window.getColumn(SIGNAL.TRA), window.getColumn(SIGNAL.TOA),
+					parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule26.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TMA), window.getColumn(SIGNAL.TRA), window.getColumn(SIGNAL.TOA),
+					parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #27 (@see eu.moeebius.fdd.rules.ahu.apar.Rule27)
+	 */
+	RULE27 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule27.kernel(steadyStateMode, offset, length, window.getColumn(SIGNAL.TMA), window.getColumn(SIGNAL.TRA), window.getColumn(SIGNAL.TOA),
+					parameters.get(FDD_PARAMETERS.ET));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule27.violations(steadyStateMode, offset, length, window.getColumn(SIGNAL.TMA), window.getColumn(SIGNAL.TRA), window.getColumn(SIGNAL.TOA),
+					parameters.get(FDD_PARAMETERS.ET), bitmap);
+		}
+	},
+	/**
+	 * Kernel of Rule #28 (@see eu.moeebius.fdd.rules.ahu.apar.Rule28)
+	 */
+	RULE28 {
+		@Override
+		public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length) {
+			return Rule28.kernel(offset, length, window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.UD), window.getColumn(SIGNAL.UCC),
+					parameters.get(FDD_PARAMETERS.EHC), parameters.get(FDD_PARAMETERS.ED), parameters.get(FDD_PARAMETERS.ECC), parameters.get(FDD_PARAMETERS.MTMAX));
+		}
+
+		@Override
+		public int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap) {
+			return Rule28.switches(offset, length, window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.UD), window.getColumn(SIGNAL.UCC),
+					parameters.get(FDD_PARAMETERS.EHC), parameters.get(FDD_PARAMETERS.ED), parameters.get(FDD_PARAMETERS.ECC), bitmap);
+		}
+	};
+
+	private static final AparKernel[] KERNELS = values();
+
+	/**
+	 * Calculation of the rule over a slice of a window of AHU data.
+	 * @param parameters			The FDD parameters.
+	 * @param steadyStateMode		The steady-state operation mode of the slice.
+	 * @param window				The window of AHU data.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @return						The probability of fault.
+	 */
+	public abstract double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length);
+
+	/**
+	 * Calculation of the rule over a window of AHU data.
+	 * @param parameters			The FDD parameters.
+	 * @param steadyStateMode		The steady-state operation mode of the window.
+	 * @param window				The window of AHU data.
+	 * @return						The probability of fault.
+	 */
+	public double apply(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window) {
+		return this.apply(parameters, steadyStateMode, window, 0, window.getLength());
+	}
+
+	/**
+	 * Calculation of the violation bitmap of the rule over a slice of a window of AHU data, bit ii standing for the sample offset+ii
+	 * (@see eu.moeebius.fdd.rules.ahu.apar.ViolationBitmaps). For Rule #28 the bits are the mode switches.
+	 * @param parameters			The FDD parameters.
+	 * @param steadyStateMode		The steady-state operation mode of the slice.
+	 * @param window				The window of AHU data.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param bitmap				The array receiving the bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return						The number of violations.
+	 */
+	public abstract int violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window, int offset, int length, long[] bitmap);
+
+	/**
+	 * Calculation of the violation bitmap of the rule over a window of AHU data.
+	 * @param parameters			The FDD parameters.
+	 * @param steadyStateMode		The steady-state operation mode of the window.
+	 * @param window				The window of AHU data.
+	 * @return						The violation bitmap, bit ii standing for the sample ii.
+	 */
+	public long[] violations(FddParameterSnapshot parameters, double steadyStateMode, AparWindow window) {
+		long[] bitmap = new long[ViolationBitmaps.words(window.getLength())];
+		this.violations(parameters, steadyStateMode, window, 0, window.getLength(), bitmap);
+		return bitmap;
+	}
+
+	/**
+	 * Returns the symptom produced by the kernel
+	 * @return	The symptom produced by the kernel
+	 */
+	public SYMPTOM getSymptom() {
+		return SYMPTOM.values()[this.ordinal()];
+	}
+
+	/**
+	 * Returns the kernel producing a symptom
+	 * @param symptom	The symptom
+	 * @return	The kernel producing the symptom
+	 */
+	public static AparKernel of(SYMPTOM symptom) {
+		return KERNELS[symptom.ordinal()];
+	}
+
+	/**
+	 * Calculation of the steady-state operation mode of a slice of a window of AHU data as a pure function
+	 * (@see eu.moeebius.fdd.rules.ahu.apar.DetermineSteadyStateOperationMode).
+	 * @param parameters			The FDD parameters providing the control signal thresholds.
+	 * @param window				The window of AHU data.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @return						The steady-state operation mode, 0 if the slice is not in steady state or empty.
+	 */
+	public static double steadyStateMode(FddParameterSnapshot parameters, AparWindow window, int offset, int length) {
+		double[] uhc = window.getColumn(SIGNAL.UHC);
+		double[] ud = window.getColumn(SIGNAL.UD);
+		double[] ucc = window.getColumn(SIGNAL.UCC);
+		double ehc = parameters.get(FDD_PARAMETERS.EHC);
+		double ed = parameters.get(FDD_PARAMETERS.ED);
+		double ecc = parameters.get(FDD_PARAMETERS.ECC);
+		if(length == 0){
+			return 0;
+		}
+		byte steadyStateMode = DetermineOperationMode.classify(uhc[offset], ud[offset], ucc[offset], ehc, ed, ecc);
+		for(int ii=offset+1; ii < offset+length; ii++){
+			if(steadyStateMode != DetermineOperationMode.classify(uhc[ii], ud[ii], ucc[ii], ehc, ed, ecc)){
+				return 0;
+			}
+		}
+		return steadyStateMode;
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms over a slice of a window of AHU data, rule by rule.
+	 * @param parameters			The FDD parameters.
+	 * @param window				The window of AHU data.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param symptoms				The array receiving the probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 * @return						The steady-state operation mode of the slice.
+	 */
+	public static double applyAll(FddParameterSnapshot parameters, AparWindow window, int offset, int length, double[] symptoms) {
+		double steadyStateMode = steadyStateMode(parameters, window, offset, length);
+		for(AparKernel kernel : KERNELS){
+			symptoms[kernel.ordinal()] = kernel.apply(parameters, steadyStateMode, window, offset, length);
+		}
+		return steadyStateMode;
+	}
+}
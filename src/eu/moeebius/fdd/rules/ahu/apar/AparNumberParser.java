@@ -0,0 +1,160 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parsing of decimal numbers straight from the bytes of a text file, without creating a String. Numbers whose digits fit
+ * in 53 bits and whose decimal exponent is at most 22, i.e. virtually all the values of a trend log, are converted exactly
+ * with a single floating-point operation (Clinger's fast path); all others fall back to {@link Double#parseDouble}, so that
+ * the result is always the correctly rounded value.
+ */
+public final class AparNumberParser {
+
+	/**
+	 * The powers of ten that are exactly representable as a double
+	 */
+	private static final double[] POWERS = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+	/**
+	 * The largest integer below which every integer is exactly representable as a double
+	 */
+	private static final long MAX_EXACT = 1L << 53;
+
+	private AparNumberParser() {
+	}
+
+	/**
+	 * Parses a decimal number.
+	 * @param bytes		The bytes of the text, in ASCII.
+	 * @param start		The index of the first byte of the number.
+	 * @param end		The index following the last byte of the number.
+	 * @return			The value of the number, rounded to the nearest double.
+	 * @throws NumberFormatException	If the bytes do not hold a number.
+	 */
+	public static double parseDouble(byte[] bytes, int start, int end) {
+		int ii = start;
+		boolean negative = false;
+		if(ii < end && (bytes[ii] == '-' || bytes[ii] == '+')){
+			negative = bytes[ii] == '-';
+			ii++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean any = false;
+		while(ii < end && bytes[ii] >= '0' && bytes[ii] <= '9'){
+			digits = (digits > 0 || bytes[ii] != '0') ? digits+1 : 0;
+			mantissa = digits <= 18 ? 10*mantissa + (bytes[ii] - '0') : mantissa;
+			any = true;
+			ii++;
+		}
+		if(ii < end && bytes[ii] == '.'){
+			ii++;
+			while(ii < end && bytes[ii] >= '0' && bytes[ii] <= '9'){
+				digits = (digits > 0 || bytes[ii] != '0') ? digits+1 : 0;
+				mantissa = digits <= 18 ? 10*mantissa + (bytes[ii] - '0') : mantissa;
+				exponent = exponent-1;
+				any = true;
+				ii++;
+			}
+		}
+		if(any && ii < end && (bytes[ii] == 'e' || bytes[ii] == 'E')){
+			ii++;
+			boolean negativeExponent = false;
+			if(ii < end && (bytes[ii] == '-' || bytes[ii] == '+')){
+				negativeExponent = bytes[ii] == '-';
+				ii++;
+			}
+			int decimalExponent = 0;
+			boolean anyExponent = false;
+			while(ii < end && bytes[ii] >= '0' && bytes[ii] <= '9' && decimalExponent < 10000){
+				decimalExponent = 10*decimalExponent + (bytes[ii] - '0');
+				anyExponent = true;
+				ii++;
+			}
+			any = anyExponent;
+			exponent = exponent + (negativeExponent ? -decimalExponent : decimalExponent);
+		}
+		// the mantissa cannot have overflowed with at most 18 significant digits
+		if(any && ii == end && digits <= 18){
+			if(mantissa == 0){
+				return negative ? -0.0 : 0.0;
+			}
+			if(mantissa <= MAX_EXACT && exponent >= -22 && exponent <= 22){
+				double value = exponent < 0 ? mantissa / POWERS[-exponent] : mantissa * POWERS[exponent];
+				return negative ? -value : value;
+			}
+		}
+		return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Parses a decimal integer.
+	 * @param bytes		The bytes of the text, in ASCII.
+	 * @param start		The index of the first byte of the number.
+	 * @param end		The index following the last byte of the number.
+	 * @return			The value of the number.
+	 * @throws NumberFormatException	If the bytes do not hold an integer or it does not fit in a long.
+	 */
+	public static long parseLong(byte[] bytes, int start, int end) {
+		int ii = start;
+		boolean negative = false;
+		if(ii < end && (bytes[ii] == '-' || bytes[ii] == '+')){
+			negative = bytes[ii] == '-';
+			ii++;
+		}
+		if(ii == end || end - ii > 18){
+			return Long.parseLong(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+		}
+		long value = 0;
+		for(; ii < end; ii++){
+			if(bytes[ii] < '0' || bytes[ii] > '9'){
+				throw new NumberFormatException("For input string: \"" + new String(bytes, start, end - start, StandardCharsets.US_ASCII) + "\"");
+			}
+			value = 10*value + (bytes[ii] - '0');
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Checks whether bytes hold a decimal integer, optionally signed
+	 * @param bytes		The bytes of the text, in ASCII.
+	 * @param start		The index of the first byte.
+	 * @param end		The index following the last byte.
+	 * @return			True if the bytes hold an integer
+	 */
+	public static boolean isInteger(byte[] bytes, int start, int end) {
+		int ii = start;
+		if(ii < end && (bytes[ii] == '-' || bytes[ii] == '+')){
+			ii++;
+		}
+		if(ii == end){
+			return false;
+		}
+		for(; ii < end; ii++){
+			if(bytes[ii] < '0' || bytes[ii] > '9'){
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,93 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
+
+/**
+ * Immutable parameter profile of an AHU unit: the FDD parameters and the engine applying the APAR rules with them. A
+ * profile is never modified; an update publishes a new profile with a higher version.
+ */
+public final class AparProfile {
+
+	private final FddParameterSnapshot parameters;
+	private final AparEngine engine;
+	private final long version;
+
+	/**
+	 * Instantiates a profile
+	 * @param parameters		The FDD parameters of the profile
+	 * @param version			The version of the profile
+	 */
+	public AparProfile(FddParameterSnapshot parameters, long version) {
+		this.parameters = parameters;
+		this.engine = new AparEngine(parameters);
+		this.version = version;
+	}
+
+	private AparProfile(FddParameterSnapshot parameters, AparEngine engine, long version) {
+		this.parameters = parameters;
+		this.engine = engine;
+		this.version = version;
+	}
+
+	/**
+	 * Returns the profile with another version, sharing the parameters and the engine of this one
+	 * @param version		The version of the new profile
+	 * @return	A new profile; this one is left unchanged
+	 */
+	AparProfile withVersion(long version) {
+		return new AparProfile(this.parameters, this.engine, version);
+	}
+
+	/**
+	 * Returns the next version of the profile, differing in a single parameter
+	 * @param parameter		The parameter to be changed
+	 * @param value			The new value of the parameter
+	 * @return	A new profile; this one is left unchanged
+	 */
+	public AparProfile with(FDD_PARAMETERS parameter, double value) {
+		return new AparProfile(this.parameters.with(parameter, value), this.version + 1);
+	}
+
+	/**
+	 * Returns the FDD parameters of the profile
+	 * @return	The snapshot of the FDD parameters
+	 */
+	public FddParameterSnapshot getParameters() {
+		return this.parameters;
+	}
+
+	/**
+	 * Returns the engine applying the APAR rules with the parameters of the profile. The engine can be shared between threads.
+	 * @return	The engine of the profile
+	 */
+	public AparEngine getEngine() {
+		return this.engine;
+	}
+
+	/**
+	 * Returns the version of the profile, increased by every update
+	 * @return	The version of the profile
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+}
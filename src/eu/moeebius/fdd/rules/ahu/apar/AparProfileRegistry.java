@@ -0,0 +1,153 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
+
+/**
+ * Registry of the parameter profiles of a fleet of AHU units, keyed by the id of the unit. Every unit has its own atomic
+ * reference to an immutable {@link AparProfile}, so the workers read the current profile without locking while updates
+ * are published with compare-and-set. Units without a profile of their own use the default profile.
+ */
+public class AparProfileRegistry {
+
+	private AtomicReference<AparProfile> defaultProfile;
+	private ConcurrentHashMap<String, AtomicReference<AparProfile>> profiles = new ConcurrentHashMap<String, AtomicReference<AparProfile>>();
+
+	/**
+	 * Instantiates the registry with the default FDD parameters as default profile
+	 */
+	public AparProfileRegistry() {
+		this(FddParameterSnapshot.DEFAULT);
+	}
+
+	/**
+	 * Instantiates the registry
+	 * @param defaults		The FDD parameters of the units without a profile of their own
+	 */
+	public AparProfileRegistry(FddParameterSnapshot defaults) {
+		this.defaultProfile = new AtomicReference<AparProfile>(new AparProfile(defaults, 0));
+	}
+
+	/**
+	 * Returns the current profile of a unit
+	 * @param ahu		The id of the unit
+	 * @return	The profile of the unit, or the default profile if the unit has none of its own
+	 */
+	public AparProfile get(String ahu) {
+		AtomicReference<AparProfile> reference = this.profiles.get(ahu);
+		return reference != null ? reference.get() : this.defaultProfile.get();
+	}
+
+	/**
+	 * Returns the current default profile
+	 * @return	The profile of the units without a profile of their own
+	 */
+	public AparProfile getDefault() {
+		return this.defaultProfile.get();
+	}
+
+	/**
+	 * Replaces the parameters of a unit
+	 * @param ahu			The id of the unit
+	 * @param parameters	The new FDD parameters of the unit
+	 * @return	The published profile
+	 */
+	public AparProfile put(String ahu, FddParameterSnapshot parameters) {
+		// the engine is built once, a retry only stamps another version
+		AparProfile profile = new AparProfile(parameters, 0);
+		while(true){
+			AtomicReference<AparProfile> reference = this.reference(ahu);
+			AparProfile current = reference.get();
+			AparProfile next = profile.withVersion(current.getVersion() + 1);
+			if(reference.compareAndSet(current, next) && this.isPublished(ahu, reference)){
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Changes a single parameter of a unit, starting from the default profile if the unit has none of its own
+	 * @param ahu			The id of the unit
+	 * @param parameter		The parameter to be changed
+	 * @param value			The new value of the parameter
+	 * @return	The published profile
+	 */
+	public AparProfile update(String ahu, FDD_PARAMETERS parameter, double value) {
+		while(true){
+			AtomicReference<AparProfile> reference = this.reference(ahu);
+			AparProfile next = update(reference, parameter, value);
+			if(this.isPublished(ahu, reference)){
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Changes a single parameter of the default profile. Units with a profile of their own are not affected.
+	 * @param parameter		The parameter to be changed
+	 * @param value			The new value of the parameter
+	 * @return	The published default profile
+	 */
+	public AparProfile updateDefault(FDD_PARAMETERS parameter, double value) {
+		return update(this.defaultProfile, parameter, value);
+	}
+
+	/**
+	 * Drops the profile of a unit, which falls back to the default profile. A concurrent {@link #put} or {@link #update} of the unit
+	 * either happens before and is dropped too, or happens after and creates a new profile for the unit.
+	 * @param ahu		The id of the unit
+	 */
+	public void remove(String ahu) {
+		this.profiles.remove(ahu);
+	}
+
+	private static AparProfile update(AtomicReference<AparProfile> reference, FDD_PARAMETERS parameter, double value) {
+		while(true){
+			AparProfile current = reference.get();
+			AparProfile next = current.with(parameter, value);
+			if(reference.compareAndSet(current, next)){
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the reference of a unit is still the one of the registry. A profile set on a reference that a concurrent
+	 * {@link #remove(String)} dropped is never returned by {@link #get(String)}, so the change must be made again on the current one.
+	 */
+	private boolean isPublished(String ahu, AtomicReference<AparProfile> reference) {
+		return this.profiles.get(ahu) == reference;
+	}
+
+	private AtomicReference<AparProfile> reference(String ahu) {
+		AtomicReference<AparProfile> reference = this.profiles.get(ahu);
+		if(reference == null){
+			AtomicReference<AparProfile> created = new AtomicReference<AparProfile>(this.defaultProfile.get());
+			reference = this.profiles.putIfAbsent(ahu, created);
+			if(reference == null){
+				reference = created;
+			}
+		}
+		return reference;
+	}
+}
@@ -0,0 +1,328 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
+
+/**
+ * A memory-mapped index of the rule violations of a telemetry file (@see eu.moeebius.fdd.rules.ahu.apar.AparTelemetryFile), answering
+ * the APAR symptoms of any range of samples without reading the samples again. For every rule, every operation mode and the mode
+ * switches the index keeps one bit per sample in 64-sample blocks, together with the number of bits set before each block
+ * (@see eu.moeebius.fdd.rules.ahu.apar.ViolationBitmaps). The number of bits set in a range is then two lookups and a subtraction,
+ * whatever the length of the range. A rule bit is only set on the samples of the operation mode in which the rule applies, so the
+ * counts of a range are exactly the ones of {@link AparEngine#accumulate(AparWindow, AparAccumulator)} on its samples. The index
+ * depends on the FDD parameters it was built with, which it records.
+ */
+public class AparRangeIndex implements Closeable {
+
+	/**
+	 * The number of samples indexed per step, a multiple of the 64 samples of a block
+	 */
+	private static final int CHUNK = 1024;
+
+	private static final int MAGIC = 0x41504958;
+	private static final int VERSION = 1;
+	private static final int LENGTH_POSITION = 12;
+	private static final FDD_PARAMETERS[] PARAMETERS = FDD_PARAMETERS.values();
+	private static final int HEADER = 16 + 8 * PARAMETERS.length;
+
+	private static final int RULES = AparEngine.SYMPTOMS-1;
+	private static final int MODES = RULES;
+	private static final int SWITCHES = MODES + 5;
+	private static final int SERIES = SWITCHES + 1;
+	private static final int RECORD = 12 * SERIES;
+
+	private static final AparKernel[] KERNELS = AparKernel.values();
+
+	private MappedByteBuffer buffer;
+	private int capacity;
+	private int length;
+
+	private AparRangeIndex(MappedByteBuffer buffer, int capacity, int length) {
+		this.buffer = buffer;
+		this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+		this.capacity = capacity;
+		this.length = length;
+	}
+
+	private static long size(int capacity) {
+		return HEADER + (long) RECORD * ((capacity >>> 6) + 1);
+	}
+
+	/**
+	 * Creates an empty index, overwriting any existing file.
+	 * @param path			The path of the index.
+	 * @param capacity		The maximum number of samples of the index, e.g. the capacity of its telemetry file.
+	 * @param parameters	The FDD parameters with which the violations are indexed.
+	 * @return				The index, open for updating.
+	 * @throws IOException	If the file cannot be created.
+	 */
+	public static AparRangeIndex create(Path path, int capacity, FddParameterSnapshot parameters) throws IOException {
+		if(capacity < 0 || size(capacity) > Integer.MAX_VALUE){
+			throw new IllegalArgumentException("Capacity of " + capacity + " samples exceeds the size of a mapped file");
+		}
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)){
+			AparRangeIndex index = new AparRangeIndex(channel.map(MapMode.READ_WRITE, 0, size(capacity)), capacity, 0);
+			index.buffer.putInt(0, MAGIC);
+			index.buffer.putInt(4, VERSION);
+			index.buffer.putInt(8, capacity);
+			index.buffer.putInt(LENGTH_POSITION, 0);
+			for(int pp=0; pp < PARAMETERS.length; pp++){
+				index.buffer.putDouble(16 + 8*pp, parameters.get(PARAMETERS[pp]));
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Opens an existing index.
+	 * @param path			The path of the index.
+	 * @param writable		True to open the index for updating.
+	 * @return				The index.
+	 * @throws IOException	If the file cannot be read or is not an index.
+	 */
+	public static AparRangeIndex open(Path path, boolean writable) throws IOException {
+		try(FileChannel channel = writable ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE) : FileChannel.open(path, StandardOpenOption.READ)){
+			if(channel.size() < HEADER){
+				throw new IOException(path + " is not an APAR range index");
+			}
+			MappedByteBuffer buffer = channel.map(writable ? MapMode.READ_WRITE : MapMode.READ_ONLY, 0, channel.size());
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION){
+				throw new IOException(path + " is not an APAR range index of version " + VERSION);
+			}
+			int capacity = buffer.getInt(8);
+			int length = buffer.getInt(LENGTH_POSITION);
+			if(capacity < 0 || channel.size() != size(capacity) || length < 0 || length > capacity){
+				throw new IOException(path + " is truncated or corrupted");
+			}
+			return new AparRangeIndex(buffer, capacity, length);
+		}
+	}
+
+	/**
+	 * Returns whether the index was built with given FDD parameters
+	 * @param parameters	The FDD parameters
+	 * @return	True if every parameter is the one of the index
+	 */
+	public boolean matches(FddParameterSnapshot parameters) {
+		for(int pp=0; pp < PARAMETERS.length; pp++){
+			if(Double.doubleToLongBits(this.buffer.getDouble(16 + 8*pp)) != Double.doubleToLongBits(parameters.get(PARAMETERS[pp]))){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Indexes the samples appended to a telemetry file since the last update. The block holding the last indexed sample is indexed again
+	 * from its start, so updates can follow appends of any size.
+	 * @param telemetry		The telemetry file of the index.
+	 * @param engine		The engine evaluating the rules, with the FDD parameters of the index.
+	 */
+	public void update(AparTelemetryFile telemetry, AparEngine engine) {
+		int end = telemetry.getLength();
+		if(!this.matches(engine.getParameters())){
+			throw new IllegalArgumentException("The index was built with other FDD parameters than the ones of the engine");
+		}
+		if(end < this.length || end > this.capacity){
+			throw new IllegalArgumentException("Telemetry of " + end + " samples does not extend the " + this.length + " samples of an index of capacity " + this.capacity);
+		}
+		SIGNAL[] signals = SIGNAL.values();
+		double[][] columns = new double[signals.length][];
+		AparWindow window = null;
+		byte[] modes = new byte[CHUNK];
+		long[][] bitmaps = new long[SERIES][ViolationBitmaps.words(CHUNK)];
+		int begin = (this.length >>> 6) << 6;
+		byte previousMode = begin > 0 ? this.getMode(begin-1) : 0;
+		for(int start=begin; start < end; start += CHUNK){
+			int chunkLength = Math.min(CHUNK, end - start);
+			if(window == null || chunkLength != window.getLength()){
+				for(int cc=0; cc < signals.length; cc++){
+					columns[cc] = new double[chunkLength];
+				}
+				window = new AparWindow(columns[0], columns[1], columns[2], columns[3], columns[4], columns[5], columns[6], columns[7], columns[8]);
+			}
+			for(SIGNAL signal : signals){
+				telemetry.read(signal, start, window.getColumn(signal), chunkLength);
+			}
+			engine.getDetermineOperationMode().classify(window.getColumn(SIGNAL.UHC), window.getColumn(SIGNAL.UD), window.getColumn(SIGNAL.UCC), 0, chunkLength, modes);
+			if(start == 0){
+				// the first sample of the file has no predecessor, the switch across files is counted when merging
+				previousMode = modes[0];
+			}
+			int words = ViolationBitmaps.words(chunkLength);
+			for(int ww=0; ww < words; ww++){
+				for(int mm=0; mm < 5; mm++){
+					bitmaps[MODES + mm][ww] = 0;
+				}
+				long switches = 0;
+				for(int ii=64*ww; ii < Math.min(chunkLength, 64*ww + 64); ii++){
+					bitmaps[MODES + modes[ii] - 1][ww] |= 1L << (ii & 63);
+					switches |= (modes[ii] != previousMode ? 1L : 0L) << (ii & 63);
+					previousMode = modes[ii];
+				}
+				bitmaps[SWITCHES][ww] = switches;
+			}
+			for(int rr=0; rr < RULES; rr++){
+				// the rules valid in all modes are computed as in mode 1, every sample being in some mode
+				byte mode = AparEngine.RULE_MODES[rr];
+				KERNELS[rr].violations(engine.getParameters(), mode == 0 ? 1 : mode, window, 0, chunkLength, bitmaps[rr]);
+				if(mode != 0){
+					for(int ww=0; ww < words; ww++){
+						bitmaps[rr][ww] &= bitmaps[MODES + mode - 1][ww];
+					}
+				}
+			}
+			for(int ww=0; ww < words; ww++){
+				int block = (start >>> 6) + ww;
+				int position = HEADER + RECORD * block;
+				boolean full = start + 64*ww + 64 <= end;
+				for(int ss=0; ss < SERIES; ss++){
+					this.buffer.putLong(position + 8*ss, bitmaps[ss][ww]);
+					if(full){
+						// the count before the next block is final once the block is
+						int before = this.buffer.getInt(position + 8*SERIES + 4*ss);
+						this.buffer.putInt(position + RECORD + 8*SERIES + 4*ss, before + Long.bitCount(bitmaps[ss][ww]));
+					}
+				}
+			}
+		}
+		this.length = end;
+		this.buffer.putInt(LENGTH_POSITION, this.length);
+	}
+
+	/**
+	 * Returns the number of bits of a series set before a sample
+	 */
+	private long count(int series, int sample) {
+		int position = HEADER + RECORD * (sample >>> 6);
+		long before = this.buffer.getInt(position + 8*SERIES + 4*series);
+		return before + Long.bitCount(this.buffer.getLong(position + 8*series) & ((1L << (sample & 63)) - 1));
+	}
+
+	/**
+	 * Returns the operation mode of an indexed sample
+	 * @param sample	The index of the sample
+	 * @return	The operation mode of the sample
+	 */
+	public byte getMode(int sample) {
+		this.check(sample, sample+1);
+		int position = HEADER + RECORD * (sample >>> 6);
+		for(int mm=0; mm < 5; mm++){
+			if((this.buffer.getLong(position + 8*(MODES + mm)) & (1L << (sample & 63))) != 0){
+				return (byte) (mm+1);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the number of violations of a rule over a range of samples, counted on the samples of the operation mode in which the rule applies.
+	 * @param symptom	The symptom of the rule, but Rule #28.
+	 * @param from		The index of the first sample.
+	 * @param to		The index after the last sample.
+	 * @return	The number of violations
+	 */
+	public long getViolations(SYMPTOM symptom, int from, int to) {
+		this.check(from, to);
+		return this.count(symptom.ordinal(), to) - this.count(symptom.ordinal(), from);
+	}
+
+	/**
+	 * Adds the samples [from, to) to an accumulator. The result is the one of {@link AparEngine#accumulate(AparWindow, AparAccumulator)}
+	 * on a window of these samples, so the symptoms of the range follow from {@link AparEngine#apply(AparAccumulator, double[])} or
+	 * {@link AparEngine#aggregate(AparAccumulator, long, double[])} and ranges of consecutive files merge in their chronological order.
+	 * @param from			The index of the first sample.
+	 * @param to			The index after the last sample.
+	 * @param accumulator	The accumulator receiving the violation counts and mode switches, to which the samples are appended.
+	 */
+	public void accumulate(int from, int to, AparAccumulator accumulator) {
+		this.check(from, to);
+		for(int rr=0; rr < RULES; rr++){
+			byte mode = AparEngine.RULE_MODES[rr];
+			long eligible = mode == 0 ? to - from : this.count(MODES + mode - 1, to) - this.count(MODES + mode - 1, from);
+			accumulator.getRule(rr).add(this.count(rr, to) - this.count(rr, from), eligible);
+		}
+		if(to > from){
+			// the switch onto the first sample of the range is outside it
+			long switches = this.count(SWITCHES, to) - this.count(SWITCHES, from+1);
+			accumulator.getModeSwitches().merge(new ModeSwitchAccumulator(this.getMode(from), this.getMode(to-1), switches, to - from));
+		}
+	}
+
+	/**
+	 * Adds the samples of a time range to an accumulator (@see #accumulate(int, int, AparAccumulator)), locating the range by binary search
+	 * on the timestamps of the telemetry file.
+	 * @param telemetry		The telemetry file of the index.
+	 * @param from			The time of the start of the range in milliseconds, included.
+	 * @param to			The time of the end of the range in milliseconds, excluded.
+	 * @param accumulator	The accumulator receiving the violation counts and mode switches, to which the samples are appended.
+	 * @return				The number of samples of the range.
+	 */
+	public int accumulate(AparTelemetryFile telemetry, long from, long to, AparAccumulator accumulator) {
+		int first = Math.min(telemetry.search(from), this.length);
+		int last = Math.max(first, Math.min(telemetry.search(to), this.length));
+		this.accumulate(first, last, accumulator);
+		return last - first;
+	}
+
+	private void check(int from, int to) {
+		if(from < 0 || to < from || to > this.length){
+			throw new IndexOutOfBoundsException("Samples [" + from + ", " + to + ") out of [0, " + this.length + ")");
+		}
+	}
+
+	/**
+	 * Returns the number of samples indexed
+	 * @return	The number of samples indexed
+	 */
+	public int getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Returns the maximum number of samples of the index
+	 * @return	The maximum number of samples of the index
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Writes the index to the storage device. The mapping itself is released by the garbage collector.
+	 */
+	@Override
+	public void close() {
+		if(!this.buffer.isReadOnly()){
+			this.buffer.force();
+		}
+	}
+}
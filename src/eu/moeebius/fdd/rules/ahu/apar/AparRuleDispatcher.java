@@ -0,0 +1,104 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+
+/**
+ * Dispatch of a window of AHU data to the APAR rules that apply in its steady-state operation mode. The other rules are
+ * reported as 0 without reading any data. The rule instances of the registry are reused, so a dispatcher must not be
+ * shared between threads.
+ */
+public class AparRuleDispatcher {
+
+	private AparRuleRegistry registry;
+	private SYMPTOM[] symptoms = SYMPTOM.values();
+	private double[][][] columns = new double[symptoms.length][][];
+
+	/**
+	 * Instantiates the dispatcher with a new registry of the APAR rules
+	 */
+	public AparRuleDispatcher() {
+		this(new AparRuleRegistry());
+	}
+
+	/**
+	 * Instantiates the dispatcher
+	 * @param registry		The registry of the APAR rules
+	 */
+	public AparRuleDispatcher(AparRuleRegistry registry) {
+		this.registry = registry;
+		for(SYMPTOM symptom : this.symptoms){
+			this.columns[symptom.ordinal()] = new double[registry.getSignals(symptom).length][];
+		}
+	}
+
+	/**
+	 * Returns the registry of the APAR rules
+	 * @return	The registry of the APAR rules
+	 */
+	public AparRuleRegistry getRegistry() {
+		return this.registry;
+	}
+
+	/**
+	 * Calculation of the APAR symptoms that apply in a steady-state operation mode.
+	 * @param steadyStateMode		The steady-state operation mode of the window.
+	 * @param window				The window of AHU data.
+	 * @param symptoms				The array receiving the probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 */
+	public void apply(double steadyStateMode, AparWindow window, double[] symptoms) {
+		for(SYMPTOM symptom : this.symptoms){
+			symptoms[symptom.ordinal()] = 0;
+			if(this.registry.isApplicable(symptom, steadyStateMode)){
+				symptoms[symptom.ordinal()] = this.registry.getRule(symptom).apply(steadyStateMode, 0, window.getLength(), this.columns(symptom, window));
+			}
+		}
+	}
+
+	/**
+	 * Calculation of the APAR symptoms that apply in the steady-state operation mode of a mode trace. Rule #28 is taken from the
+	 * trace instead of classifying the samples again.
+	 * @param trace					The operation mode of every sample of the window.
+	 * @param window				The window of AHU data.
+	 * @param symptoms				The array receiving the probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 */
+	public void apply(ModeTrace trace, AparWindow window, double[] symptoms) {
+		double steadyStateMode = trace.getSteadyStateMode();
+		for(SYMPTOM symptom : this.symptoms){
+			symptoms[symptom.ordinal()] = 0;
+			if(symptom == SYMPTOM.Rule28Symptom){
+				symptoms[symptom.ordinal()] = ((Rule28) this.registry.getRule(symptom)).apply(trace);
+			}else if(this.registry.isApplicable(symptom, steadyStateMode)){
+				symptoms[symptom.ordinal()] = this.registry.getRule(symptom).apply(steadyStateMode, 0, window.getLength(), this.columns(symptom, window));
+			}
+		}
+	}
+
+	private double[][] columns(SYMPTOM symptom, AparWindow window) {
+		SIGNAL[] signals = this.registry.getSignals(symptom);
+		double[][] ruleColumns = this.columns[symptom.ordinal()];
+		for(int cc=0; cc < signals.length; cc++){
+			ruleColumns[cc] = window.getColumn(signals[cc]);
+		}
+		return ruleColumns;
+	}
+}
@@ -0,0 +1,131 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.util.EnumMap;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+
+/**
+ * Registry of the APAR rules, recording for each rule the steady-state operation modes in which it applies and the
+ * signals it reads, in the column order expected by the rule.
+ */
+public class AparRuleRegistry {
+
+	/**
+	 * The modes of the rules valid in all steady-state operation modes
+	 */
+	private static final int ALL_MODES = modes(1, 2, 3, 4, 5);
+
+	private EnumMap<SYMPTOM, AparInterface> rules = new EnumMap<SYMPTOM, AparInterface>(SYMPTOM.class);
+	private EnumMap<SYMPTOM, Integer> modes = new EnumMap<SYMPTOM, Integer>(SYMPTOM.class);
+	private EnumMap<SYMPTOM, SIGNAL[]> signals = new EnumMap<SYMPTOM, SIGNAL[]>(SYMPTOM.class);
+
+	/**
+	 * Instantiation of the registry with a new instance of every APAR rule
+	 */
+	public AparRuleRegistry() {
+		this.register(SYMPTOM.Rule1Symptom, new Rule1(), modes(1), SIGNAL.TSA, SIGNAL.TMA);
+		this.register(SYMPTOM.Rule2Symptom, new Rule2(), modes(1), SIGNAL.TRA, SIGNAL.TOA, SIGNAL.TMA);
+		this.register(SYMPTOM.Rule3Symptom, new Rule3(), modes(1), SIGNAL.UHC, SIGNAL.TSAS, SIGNAL.TSA);
+		this.register(SYMPTOM.Rule4Symptom, new Rule4(), modes(1), SIGNAL.UHC);
+		this.register(SYMPTOM.Rule5Symptom, new Rule5(), modes(2), SIGNAL.TOA, SIGNAL.TSAS);
+		this.register(SYMPTOM.Rule6Symptom, new Rule6(), modes(2), SIGNAL.TSA, SIGNAL.TRA);
+		this.register(SYMPTOM.Rule7Symptom, new Rule7(), modes(2), SIGNAL.TSA, SIGNAL.TMA);
+		this.register(SYMPTOM.Rule8Symptom, new Rule8(), modes(3), SIGNAL.TOA, SIGNAL.TSAS);
+		this.register(SYMPTOM.Rule9Symptom, new Rule9(), modes(3), SIGNAL.TOA, SIGNAL.TCO);
+		this.register(SYMPTOM.Rule10Symptom, new Rule10(), modes(3), SIGNAL.TOA, SIGNAL.TMA);
+		this.register(SYMPTOM.Rule11Symptom, new Rule11(), modes(3), SIGNAL.TSA, SIGNAL.TMA);
+		this.register(SYMPTOM.Rule12Symptom, new Rule12(), modes(3), SIGNAL.TSA, SIGNAL.TRA);
+		this.register(SYMPTOM.Rule13Symptom, new Rule13(), modes(3), SIGNAL.UCC, SIGNAL.TSA, SIGNAL.TSAS);
+		this.register(SYMPTOM.Rule14Symptom, new Rule14(), modes(3), SIGNAL.UCC);
+		this.register(SYMPTOM.Rule15Symptom, new Rule15(), modes(4), SIGNAL.TOA, SIGNAL.TCO);
+		this.register(SYMPTOM.Rule16Symptom, new Rule16(), modes(4), SIGNAL.TSA, SIGNAL.TMA);
+		this.register(SYMPTOM.Rule17Symptom, new Rule17(), modes(4), SIGNAL.TSA, SIGNAL.TRA);
+		this.register(SYMPTOM.Rule18Symptom, new Rule18(), modes(4), SIGNAL.TRA, SIGNAL.TOA, SIGNAL.TMA);
+		this.register(SYMPTOM.Rule19Symptom, new Rule19(), modes(4), SIGNAL.UCC, SIGNAL.TSA, SIGNAL.TSAS);
+		this.register(SYMPTOM.Rule20Symptom, new Rule20(), modes(4), SIGNAL.UCC);
+		this.register(SYMPTOM.Rule21Symptom, new Rule21(), modes(5), SIGNAL.UCC, SIGNAL.UHC, SIGNAL.UD);
+		this.register(SYMPTOM.Rule22Symptom, new Rule22(), modes(5), SIGNAL.UHC, SIGNAL.UCC);
+		this.register(SYMPTOM.Rule23Symptom, new Rule23(), modes(5), SIGNAL.UHC, SIGNAL.UD);
+		this.register(SYMPTOM.Rule24Symptom, new Rule24(), modes(5), SIGNAL.UD, SIGNAL.UCC);
+		this.register(SYMPTOM.Rule25Symptom, new Rule25(), ALL_MODES, SIGNAL.TSA, SIGNAL.TSAS);
+		this.register(SYMPTOM.Rule26Symptom, new Rule26(), ALL_MODES, SIGNAL.TMA, SIGNAL.TRA, SIGNAL.TOA);
+		this.register(SYMPTOM.Rule27Symptom, new Rule27(), ALL_MODES, SIGNAL.TMA, SIGNAL.TRA, SIGNAL.TOA);
+		this.register(SYMPTOM.Rule28Symptom, new Rule28(), modes(0) | ALL_MODES, SIGNAL.UHC, SIGNAL.UD, SIGNAL.UCC);
+	}
+
+	private void register(SYMPTOM symptom, AparInterface rule, int ruleModes, SIGNAL... ruleSignals) {
+		this.rules.put(symptom, rule);
+		this.modes.put(symptom, ruleModes);
+		this.signals.put(symptom, ruleSignals);
+	}
+
+	/**
+	 * Builds the bitmask of a set of steady-state operation modes, bit m standing for mode m (0 for no steady state)
+	 * @param ruleModes	The steady-state operation modes
+	 * @return	The bitmask of the modes
+	 */
+	public static int modes(int... ruleModes) {
+		int mask = 0;
+		for(int mode : ruleModes){
+			mask |= 1 << mode;
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns the rule producing a symptom
+	 * @param symptom	The symptom
+	 * @return	The rule producing the symptom
+	 */
+	public AparInterface getRule(SYMPTOM symptom) {
+		return this.rules.get(symptom);
+	}
+
+	/**
+	 * Returns the bitmask of the steady-state operation modes in which a rule applies, bit m standing for mode m (0 for no steady state)
+	 * @param symptom	The symptom of the rule
+	 * @return	The bitmask of the modes
+	 */
+	public int getModes(SYMPTOM symptom) {
+		return this.modes.get(symptom);
+	}
+
+	/**
+	 * Returns the signals read by a rule, in the column order expected by the rule
+	 * @param symptom	The symptom of the rule
+	 * @return	The signals read by the rule. The returned array is the one backing the registry.
+	 */
+	public SIGNAL[] getSignals(SYMPTOM symptom) {
+		return this.signals.get(symptom);
+	}
+
+	/**
+	 * Checks whether a rule can report a fault in a steady-state operation mode
+	 * @param symptom	The symptom of the rule
+	 * @param steadyStateMode	The steady-state operation mode of the AHU unit
+	 * @return	True if the rule applies in the mode
+	 */
+	public boolean isApplicable(SYMPTOM symptom, double steadyStateMode) {
+		int mode = (int) steadyStateMode;
+		return mode == steadyStateMode && mode >= 0 && mode < Integer.SIZE && (this.modes.get(symptom) & (1 << mode)) != 0;
+	}
+}
@@ -0,0 +1,43 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+
+/**
+ * Defines an interface for the consumers of a stream of AHU samples, such as the streaming evaluators and the telemetry files
+ */
+public interface AparSampleSink {
+
+	/**
+	 * Receives a sample. Samples arrive in chronological order.
+	 * @param timestamp		The time of the sample in milliseconds.
+	 * @param tsa		The supply air temperature.
+	 * @param tsas		The supply air temperature setpoint.
+	 * @param tma		The mixed air temperature.
+	 * @param tra		The return air temperature.
+	 * @param toa		The outdoor air temperature.
+	 * @param tco		The changeover air temperature for switching between modes 3 and 4.
+	 * @param uhc		The normalized [0,1] heating coil valve control signal.
+	 * @param ucc		The normalized [0,1] cooling coil valve control signal.
+	 * @param ud		The normalized [0,1] mixing box damper control signal.
+	 */
+	void accept(long timestamp, double tsa, double tsas, double tma, double tra, double toa, double tco,
+			double uhc, double ucc, double ud);
+}
@@ -0,0 +1,98 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.util.EnumMap;
+
+
+/**
+ * Definition of the measured and commanded signals consumed by the APAR rule set
+ */
+public class AparSignals {
+
+	/**
+	 * The signals consumed by the APAR rule set. The order of the constants is the column order of an {@link AparWindow}.
+	 */
+	public enum SIGNAL{
+		/**
+		 * The supply air temperature.
+		 */
+		TSA,
+		/**
+		 * The supply air temperature setpoint.
+		 */
+		TSAS,
+		/**
+		 * The mixed air temperature.
+		 */
+		TMA,
+		/**
+		 * The return air temperature.
+		 */
+		TRA,
+		/**
+		 * The outdoor air temperature.
+		 */
+		TOA,
+		/**
+		 * The changeover air temperature for switching between modes 3 and 4.
+		 */
+		TCO,
+		/**
+		 * The normalized [0,1] heating coil valve control signal.
+		 */
+		UHC,
+		/**
+		 * The normalized [0,1] cooling coil valve control signal.
+		 */
+		UCC,
+		/**
+		 * The normalized [0,1] mixing box damper control signal.
+		 */
+		UD
+	}
+
+	/**
+	 * A hash table holding the description of all the signals
+	 */
+	private EnumMap<SIGNAL, String> APARsignalsText = new EnumMap<SIGNAL, String>(SIGNAL.class);
+
+	/**
+	 * Instantiation of the signals class
+	 */
+	public AparSignals(){
+		this.APARsignalsText.put(SIGNAL.TSA, "Supply air temperature");
+		this.APARsignalsText.put(SIGNAL.TSAS, "Supply air temperature setpoint");
+		this.APARsignalsText.put(SIGNAL.TMA, "Mixed air temperature");
+		this.APARsignalsText.put(SIGNAL.TRA, "Return air temperature");
+		this.APARsignalsText.put(SIGNAL.TOA, "Outdoor air temperature");
+		this.APARsignalsText.put(SIGNAL.TCO, "Changeover air temperature between modes 3 and 4");
+		this.APARsignalsText.put(SIGNAL.UHC, "Heating coil valve control signal");
+		this.APARsignalsText.put(SIGNAL.UCC, "Cooling coil valve control signal");
+		this.APARsignalsText.put(SIGNAL.UD, "Mixing box damper control signal");
+	}
+
+    /**
+     * Returns the hash table with the description of the signals
+     * @return	The hash table with the description of the signals
+     */
+	public EnumMap<SIGNAL, String> getSignals(){
+		return this.APARsignalsText;
+	}
+}
@@ -0,0 +1,319 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+
+/**
+ * A memory-mapped, fixed-width columnar file of the telemetry of one AHU unit, holding a timestamp column followed by one
+ * column per APAR signal (@see eu.moeebius.fdd.rules.ahu.apar.AparSignals). The columns are preallocated for the capacity
+ * of the file, so that every column is contiguous on disk and samples can be appended in place. The data is read in blocks
+ * that stay in cache, so the heap needed does not depend on the length of the history.
+ */
+public class AparTelemetryFile implements Closeable, AparSampleSink {
+
+	/**
+	 * The number of samples read per block, small enough to keep the columns of a block in cache
+	 */
+	public static final int BLOCK = 1024;
+
+	private static final int MAGIC = 0x41504152;
+	private static final int VERSION = 1;
+	private static final int HEADER = 16;
+	private static final int LENGTH_POSITION = 12;
+
+	private MappedByteBuffer buffer;
+	private LongBuffer timestamps;
+	private DoubleBuffer[] columns = new DoubleBuffer[SIGNAL.values().length];
+	private int capacity;
+	private int length;
+
+	private AparTelemetryFile(MappedByteBuffer buffer) {
+		this.buffer = buffer;
+		this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private void map(int capacity, int length) {
+		this.capacity = capacity;
+		this.length = length;
+		this.timestamps = this.slice(0).asLongBuffer();
+		for(int cc=0; cc < this.columns.length; cc++){
+			this.columns[cc] = this.slice(1 + cc).asDoubleBuffer();
+		}
+	}
+
+	private ByteBuffer slice(int column) {
+		// the positions are set through Buffer, whose methods are the only ones available on every supported runtime
+		ByteBuffer slice = this.buffer.duplicate();
+		((Buffer) slice).limit(HEADER + 8 * (column + 1) * this.capacity);
+		((Buffer) slice).position(HEADER + 8 * column * this.capacity);
+		return slice.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Creates an empty telemetry file, overwriting any existing file.
+	 * @param path			The path of the file.
+	 * @param capacity		The maximum number of samples of the file.
+	 * @return				The telemetry file, open for appending.
+	 * @throws IOException	If the file cannot be created.
+	 */
+	public static AparTelemetryFile create(Path path, int capacity) throws IOException {
+		long size = HEADER + 8L * capacity * (SIGNAL.values().length + 1);
+		if(capacity < 0 || size > Integer.MAX_VALUE){
+			throw new IllegalArgumentException("Capacity of " + capacity + " samples exceeds the size of a mapped file");
+		}
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)){
+			AparTelemetryFile file = new AparTelemetryFile(channel.map(MapMode.READ_WRITE, 0, size));
+			file.buffer.putInt(0, MAGIC);
+			file.buffer.putInt(4, VERSION);
+			file.buffer.putInt(8, capacity);
+			file.buffer.putInt(LENGTH_POSITION, 0);
+			file.map(capacity, 0);
+			return file;
+		}
+	}
+
+	/**
+	 * Opens an existing telemetry file.
+	 * @param path			The path of the file.
+	 * @param writable		True to open the file for appending.
+	 * @return				The telemetry file.
+	 * @throws IOException	If the file cannot be read or is not a telemetry file.
+	 */
+	public static AparTelemetryFile open(Path path, boolean writable) throws IOException {
+		try(FileChannel channel = writable ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE) : FileChannel.open(path, StandardOpenOption.READ)){
+			if(channel.size() < HEADER){
+				throw new IOException(path + " is not an APAR telemetry file");
+			}
+			AparTelemetryFile file = new AparTelemetryFile(channel.map(writable ? MapMode.READ_WRITE : MapMode.READ_ONLY, 0, channel.size()));
+			if(file.buffer.getInt(0) != MAGIC || file.buffer.getInt(4) != VERSION){
+				throw new IOException(path + " is not an APAR telemetry file of version " + VERSION);
+			}
+			int capacity = file.buffer.getInt(8);
+			int length = file.buffer.getInt(LENGTH_POSITION);
+			if(channel.size() != HEADER + 8L * capacity * (SIGNAL.values().length + 1) || length < 0 || length > capacity){
+				throw new IOException(path + " is truncated or corrupted");
+			}
+			file.map(capacity, length);
+			return file;
+		}
+	}
+
+	/**
+	 * Appends a sample to the file.
+	 * @param timestamp		The time of the sample in milliseconds. Samples must be appended in chronological order.
+	 * @param tsa		The supply air temperature.
+	 * @param tsas		The supply air temperature setpoint.
+	 * @param tma		The mixed air temperature.
+	 * @param tra		The return air temperature.
+	 * @param toa		The outdoor air temperature.
+	 * @param tco		The changeover air temperature for switching between modes 3 and 4.
+	 * @param uhc		The normalized [0,1] heating coil valve control signal.
+	 * @param ucc		The normalized [0,1] cooling coil valve control signal.
+	 * @param ud		The normalized [0,1] mixing box damper control signal.
+	 */
+	public void append(long timestamp, double tsa, double tsas, double tma, double tra, double toa, double tco,
+			double uhc, double ucc, double ud) {
+		if(this.length == this.capacity){
+			throw new IllegalStateException("Telemetry file is full with " + this.capacity + " samples");
+		}
+		if(this.length > 0 && timestamp <= this.getTimestamp(this.length-1)){
+			throw new IllegalArgumentException("Sample at " + timestamp + " appended after sample at " + this.getTimestamp(this.length-1));
+		}
+		this.timestamps.put(this.length, timestamp);
+		this.columns[SIGNAL.TSA.ordinal()].put(this.length, tsa);
+		this.columns[SIGNAL.TSAS.ordinal()].put(this.length, tsas);
+		this.columns[SIGNAL.TMA.ordinal()].put(this.length, tma);
+		this.columns[SIGNAL.TRA.ordinal()].put(this.length, tra);
+		this.columns[SIGNAL.TOA.ordinal()].put(this.length, toa);
+		this.columns[SIGNAL.TCO.ordinal()].put(this.length, tco);
+		this.columns[SIGNAL.UHC.ordinal()].put(this.length, uhc);
+		this.columns[SIGNAL.UCC.ordinal()].put(this.length, ucc);
+		this.columns[SIGNAL.UD.ordinal()].put(this.length, ud);
+		this.length = this.length+1;
+		this.buffer.putInt(LENGTH_POSITION, this.length);
+	}
+
+	/**
+	 * Appends a sample to the file (@see #append).
+	 */
+	@Override
+	public void accept(long timestamp, double tsa, double tsas, double tma, double tra, double toa, double tco,
+			double uhc, double ucc, double ud) {
+		this.append(timestamp, tsa, tsas, tma, tra, toa, tco, uhc, ucc, ud);
+	}
+
+	/**
+	 * Appends a window of samples to the file.
+	 * @param timestamps	The times of the samples in milliseconds, in chronological order.
+	 * @param window		The AHU data of the samples.
+	 */
+	public void append(long[] timestamps, AparWindow window) {
+		double[] tsa = window.getColumn(SIGNAL.TSA);
+		double[] tsas = window.getColumn(SIGNAL.TSAS);
+		double[] tma = window.getColumn(SIGNAL.TMA);
+		double[] tra = window.getColumn(SIGNAL.TRA);
+		double[] toa = window.getColumn(SIGNAL.TOA);
+		double[] tco = window.getColumn(SIGNAL.TCO);
+		double[] uhc = window.getColumn(SIGNAL.UHC);
+		double[] ucc = window.getColumn(SIGNAL.UCC);
+		double[] ud = window.getColumn(SIGNAL.UD);
+		for(int ii=0; ii < window.getLength(); ii++){
+			this.append(timestamps[ii], tsa[ii], tsas[ii], tma[ii], tra[ii], toa[ii], tco[ii], uhc[ii], ucc[ii], ud[ii]);
+		}
+	}
+
+	/**
+	 * Returns the time of a sample
+	 * @param sample	The index of the sample
+	 * @return	The time of the sample in milliseconds
+	 */
+	public long getTimestamp(int sample) {
+		return this.timestamps.get(sample);
+	}
+
+	/**
+	 * Finds the first sample at or after a time by binary search on the timestamp column, which is strictly increasing.
+	 * @param timestamp		The time in milliseconds.
+	 * @return				The index of the first sample whose time is not before the given time, the length of the file if there is none.
+	 */
+	public int search(long timestamp) {
+		int low = 0;
+		int high = this.length;
+		while(low < high){
+			int middle = (low + high) >>> 1;
+			if(this.timestamps.get(middle) < timestamp){
+				low = middle+1;
+			}else{
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Copies a slice of the timestamp column.
+	 * @param offset		The index of the first sample.
+	 * @param timestamps	The array receiving the times of the samples, filled from its start.
+	 * @param length		The number of samples.
+	 */
+	public void readTimestamps(int offset, long[] timestamps, int length) {
+		this.check(offset, length);
+		LongBuffer slice = this.timestamps.duplicate();
+		((Buffer) slice).position(offset);
+		slice.get(timestamps, 0, length);
+	}
+
+	/**
+	 * Copies a slice of the column of a signal.
+	 * @param signal		The signal.
+	 * @param offset		The index of the first sample.
+	 * @param column		The array receiving the values of the signal, filled from its start.
+	 * @param length		The number of samples.
+	 */
+	public void read(SIGNAL signal, int offset, double[] column, int length) {
+		this.check(offset, length);
+		DoubleBuffer slice = this.columns[signal.ordinal()].duplicate();
+		((Buffer) slice).position(offset);
+		slice.get(column, 0, length);
+	}
+
+	private void check(int offset, int length) {
+		if(offset < 0 || length < 0 || offset + length > this.length){
+			throw new IndexOutOfBoundsException("Samples [" + offset + ", " + (offset + length) + ") out of [0, " + this.length + ")");
+		}
+	}
+
+	/**
+	 * Adds the samples [offset, offset+length) of the file to an accumulator, one block at a time. The blocks are copied into arrays
+	 * of {@link #BLOCK} samples reused from block to block, since the rules read arrays.
+	 * @param engine		The engine evaluating the rules.
+	 * @param offset		The index of the first sample.
+	 * @param length		The number of samples.
+	 * @param accumulator	The accumulator receiving the violation counts and mode switches, to which the samples are appended.
+	 */
+	public void accumulate(AparEngine engine, int offset, int length, AparAccumulator accumulator) {
+		this.check(offset, length);
+		SIGNAL[] signals = SIGNAL.values();
+		double[][] columns = new double[signals.length][];
+		AparWindow window = null;
+		for(int start=offset; start < offset + length; start += BLOCK){
+			int blockLength = Math.min(BLOCK, offset + length - start);
+			if(window == null || blockLength != window.getLength()){
+				for(int cc=0; cc < signals.length; cc++){
+					columns[cc] = new double[blockLength];
+				}
+				window = new AparWindow(columns[0], columns[1], columns[2], columns[3], columns[4], columns[5], columns[6], columns[7], columns[8]);
+			}
+			for(SIGNAL signal : signals){
+				this.read(signal, start, window.getColumn(signal), blockLength);
+			}
+			engine.accumulate(window, accumulator);
+		}
+	}
+
+	/**
+	 * Adds all the samples of the file to an accumulator (@see #accumulate(AparEngine, int, int, AparAccumulator)).
+	 * @param engine		The engine evaluating the rules.
+	 * @param accumulator	The accumulator receiving the violation counts and mode switches, to which the samples are appended.
+	 */
+	public void accumulate(AparEngine engine, AparAccumulator accumulator) {
+		this.accumulate(engine, 0, this.length, accumulator);
+	}
+
+	/**
+	 * Returns the number of samples of the file
+	 * @return	The number of samples of the file
+	 */
+	public int getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Returns the maximum number of samples of the file
+	 * @return	The maximum number of samples of the file
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Writes the appended samples to the storage device. The mapping itself is released by the garbage collector.
+	 */
+	@Override
+	public void close() {
+		if(!this.buffer.isReadOnly()){
+			this.buffer.force();
+		}
+	}
+}
@@ -0,0 +1,267 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * A directory of telemetry files (@see eu.moeebius.fdd.rules.ahu.apar.AparTelemetryFile) holding one file per AHU unit
+ * per month, laid out as root/ahu/yyyy-MM.apar. Histories of any length are evaluated month by month from the mapped files,
+ * so that backfills are bound by the storage bandwidth instead of the heap. Each file may have a range index next to it,
+ * root/ahu/yyyy-MM.apix (@see eu.moeebius.fdd.rules.ahu.apar.AparRangeIndex), brought up to date by {@link #updateIndex}, that answers
+ * time-range queries without reading the samples.
+ */
+public class AparTelemetryStore {
+
+	/**
+	 * The extension of the telemetry files
+	 */
+	public static final String EXTENSION = ".apar";
+
+	/**
+	 * The extension of the range indexes
+	 */
+	public static final String INDEX_EXTENSION = ".apix";
+
+	private static final String LOCK_EXTENSION = ".lock";
+	private static final String TEMPORARY_EXTENSION = ".tmp";
+	private static final Object[] MONITORS = new Object[64];
+
+	static {
+		for(int mm=0; mm < MONITORS.length; mm++){
+			MONITORS[mm] = new Object();
+		}
+	}
+
+	private static final long DAY = 24L * 60L * 60L * 1000L;
+
+	private Path root;
+
+	/**
+	 * Instantiates the store
+	 * @param root		The directory of the store.
+	 */
+	public AparTelemetryStore(Path root) {
+		this.root = root;
+	}
+
+	/**
+	 * Returns the path of the telemetry file of an AHU unit for a month
+	 * @param ahu		The identifier of the AHU unit.
+	 * @param month		The month.
+	 * @return	The path of the telemetry file
+	 */
+	public Path getPath(String ahu, YearMonth month) {
+		return this.root.resolve(ahu).resolve(month.toString() + EXTENSION);
+	}
+
+	/**
+	 * Creates the empty telemetry file of an AHU unit for a month, sized for a whole month of samples.
+	 * @param ahu			The identifier of the AHU unit.
+	 * @param month			The month.
+	 * @param samplePeriod	The period of the samples in milliseconds.
+	 * @return				The telemetry file, open for appending.
+	 * @throws IOException	If the file cannot be created.
+	 */
+	public AparTelemetryFile create(String ahu, YearMonth month, long samplePeriod) throws IOException {
+		Path path = this.getPath(ahu, month);
+		Files.createDirectories(path.getParent());
+		return AparTelemetryFile.create(path, (int) (month.lengthOfMonth() * DAY / samplePeriod));
+	}
+
+	/**
+	 * Opens the telemetry file of an AHU unit for a month.
+	 * @param ahu			The identifier of the AHU unit.
+	 * @param month			The month.
+	 * @param writable		True to open the file for appending.
+	 * @return				The telemetry file, null if there is no data for the month.
+	 * @throws IOException	If the file cannot be read.
+	 */
+	public AparTelemetryFile open(String ahu, YearMonth month, boolean writable) throws IOException {
+		Path path = this.getPath(ahu, month);
+		return Files.exists(path) ? AparTelemetryFile.open(path, writable) : null;
+	}
+
+	/**
+	 * Adds the history of an AHU unit over a range of months to an accumulator, month by month in chronological order. The months without
+	 * data are skipped, so the mode switch counted across such a gap is the one between the samples on either side of it.
+	 * @param ahu			The identifier of the AHU unit.
+	 * @param from			The first month.
+	 * @param to			The last month, included.
+	 * @param engine		The engine evaluating the rules.
+	 * @param accumulator	The accumulator receiving the violation counts and mode switches.
+	 * @return				The number of samples evaluated.
+	 * @throws IOException	If a file cannot be read.
+	 */
+	public long accumulate(String ahu, YearMonth from, YearMonth to, AparEngine engine, AparAccumulator accumulator) throws IOException {
+		long length = 0;
+		for(YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)){
+			try(AparTelemetryFile file = this.open(ahu, month, false)){
+				if(file != null){
+					file.accumulate(engine, accumulator);
+					length = length + file.getLength();
+				}
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Returns the path of the range index of the telemetry file of an AHU unit for a month
+	 * @param ahu		The identifier of the AHU unit.
+	 * @param month		The month.
+	 * @return	The path of the range index
+	 */
+	public Path getIndexPath(String ahu, YearMonth month) {
+		return this.root.resolve(ahu).resolve(month.toString() + INDEX_EXTENSION);
+	}
+
+	/**
+	 * Brings the range index of the telemetry file of an AHU unit for a month up to date, indexing the samples appended since its last
+	 * update, e.g. after each batch of appends. The index is built anew when it is missing, unreadable, was built with other FDD parameters
+	 * or does not fit the telemetry file; it is then written to a temporary file that replaces the index at once, so that the queries
+	 * reading the former index are not disturbed. The updates of an index are serialized across threads and processes by an exclusive
+	 * lock on the file root/ahu/yyyy-MM.apix.lock.
+	 * @param ahu			The identifier of the AHU unit.
+	 * @param month			The month.
+	 * @param engine		The engine evaluating the rules.
+	 * @return				The number of samples indexed, 0 if there is no data for the month.
+	 * @throws IOException	If a file cannot be read or written.
+	 */
+	public int updateIndex(String ahu, YearMonth month, AparEngine engine) throws IOException {
+		Path path = this.getIndexPath(ahu, month);
+		try(AparTelemetryFile telemetry = this.open(ahu, month, false)){
+			if(telemetry == null){
+				return 0;
+			}
+			Path lockPath = path.resolveSibling(path.getFileName() + LOCK_EXTENSION);
+			// file locks are held by the whole JVM, so the threads of this JVM are serialized first
+			synchronized(MONITORS[Math.floorMod(lockPath.toAbsolutePath().normalize().hashCode(), MONITORS.length)]){
+				try(FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)){
+					// the lock is released when the channel is closed
+					channel.lock();
+					try(AparRangeIndex index = this.openIndex(path, telemetry, engine, true)){
+						if(index == null){
+							this.buildIndex(path, telemetry, engine);
+						}else if(index.getLength() < telemetry.getLength()){
+							index.update(telemetry, engine);
+						}
+						return telemetry.getLength();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds the range index of a telemetry file in a temporary file and moves it over the former index.
+	 */
+	private void buildIndex(Path path, AparTelemetryFile telemetry, AparEngine engine) throws IOException {
+		Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), TEMPORARY_EXTENSION);
+		try{
+			try(AparRangeIndex index = AparRangeIndex.create(temporary, telemetry.getCapacity(), engine.getParameters())){
+				index.update(telemetry, engine);
+			}
+			try{
+				Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+			}catch(AtomicMoveNotSupportedException e){
+				Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}finally{
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Opens a range index if it exists, is readable, was built with the FDD parameters of the engine and fits the telemetry file.
+	 * @return	The range index, null if it cannot be used.
+	 */
+	private AparRangeIndex openIndex(Path path, AparTelemetryFile telemetry, AparEngine engine, boolean writable) {
+		if(!Files.exists(path)){
+			return null;
+		}
+		AparRangeIndex index;
+		try{
+			index = AparRangeIndex.open(path, writable);
+		}catch(IOException e){
+			// not an index, truncated or not accessible: built anew by the next update
+			return null;
+		}
+		if(!index.matches(engine.getParameters()) || index.getCapacity() != telemetry.getCapacity() || index.getLength() > telemetry.getLength()){
+			index.close();
+			return null;
+		}
+		return index;
+	}
+
+	/**
+	 * Adds the history of an AHU unit over a time range to an accumulator from the range indexes of the months, so that only a few words
+	 * of each index are read. The symptoms of the range are then the ones of the rules applied to its samples, e.g. through
+	 * {@link AparEngine#apply(AparAccumulator, double[])}. The indexes are only read, never written (@see #updateIndex): the samples appended
+	 * since the last update of an index, or all the samples of a month whose index is missing or stale, are evaluated from the telemetry file.
+	 * @param ahu			The identifier of the AHU unit.
+	 * @param from			The time of the start of the range in milliseconds, included.
+	 * @param to			The time of the end of the range in milliseconds, excluded.
+	 * @param engine		The engine evaluating the rules.
+	 * @param accumulator	The accumulator receiving the violation counts and mode switches.
+	 * @return				The number of samples of the range.
+	 * @throws IOException	If a file cannot be read.
+	 */
+	public long accumulate(String ahu, long from, long to, AparEngine engine, AparAccumulator accumulator) throws IOException {
+		// the months around the range are searched too, whatever the time zone in which the samples were split into months
+		YearMonth first = YearMonth.from(Instant.ofEpochMilli(from).atOffset(ZoneOffset.UTC)).minusMonths(1);
+		YearMonth last = YearMonth.from(Instant.ofEpochMilli(to).atOffset(ZoneOffset.UTC)).plusMonths(1);
+		long length = 0;
+		for(YearMonth month = first; !month.isAfter(last) && from < to; month = month.plusMonths(1)){
+			try(AparTelemetryFile telemetry = this.open(ahu, month, false)){
+				if(telemetry != null && telemetry.getLength() > 0 && telemetry.getTimestamp(0) < to && telemetry.getTimestamp(telemetry.getLength()-1) >= from){
+					int start = telemetry.search(from);
+					int end = Math.max(start, telemetry.search(to));
+					int indexed = start;
+					try(AparRangeIndex index = this.openIndex(this.getIndexPath(ahu, month), telemetry, engine, false)){
+						if(index != null && index.getLength() > start){
+							indexed = Math.min(end, index.getLength());
+							index.accumulate(start, indexed, accumulator);
+						}
+					}
+					telemetry.accumulate(engine, indexed, end - indexed, accumulator);
+					length = length + end - start;
+				}
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Returns the directory of the store
+	 * @return	The directory of the store
+	 */
+	public Path getRoot() {
+		return this.root;
+	}
+}
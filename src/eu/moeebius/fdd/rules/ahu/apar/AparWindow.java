@@ -0,0 +1,94 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+
+/**
+ * A columnar window of AHU data holding one column per APAR signal (@see eu.moeebius.fdd.rules.ahu.apar.AparSignals).
+ * The columns are referenced, not copied.
+ */
+public class AparWindow {
+
+	private double[][] columns = new double[SIGNAL.values().length][];
+	private int length;
+
+	/**
+	 * Instantiates a window of AHU data
+	 * @param tsa		The supply air temperature.
+	 * @param tsas		The supply air temperature setpoint.
+	 * @param tma		The mixed air temperature.
+	 * @param tra		The return air temperature.
+	 * @param toa		The outdoor air temperature.
+	 * @param tco		The changeover air temperature for switching between modes 3 and 4.
+	 * @param uhc		The normalized [0,1] heating coil valve control signal.
+	 * @param ucc		The normalized [0,1] cooling coil valve control signal.
+	 * @param ud		The normalized [0,1] mixing box damper control signal.
+	 */
+	public AparWindow(double[] tsa, double[] tsas, double[] tma, double[] tra, double[] toa, double[] tco,
+			double[] uhc, double[] ucc, double[] ud) {
+		this.length = tsa.length;
+		this.setColumn(SIGNAL.TSA, tsa);
+		this.setColumn(SIGNAL.TSAS, tsas);
+		this.setColumn(SIGNAL.TMA, tma);
+		this.setColumn(SIGNAL.TRA, tra);
+		this.setColumn(SIGNAL.TOA, toa);
+		this.setColumn(SIGNAL.TCO, tco);
+		this.setColumn(SIGNAL.UHC, uhc);
+		this.setColumn(SIGNAL.UCC, ucc);
+		this.setColumn(SIGNAL.UD, ud);
+	}
+
+	/**
+	 * Instantiates a window of AHU data
+	 * @param inputs		The data of the window, one column per signal in the order of {@link SIGNAL}.
+	 */
+	public AparWindow(RealMatrix inputs) {
+		this.length = inputs.getRowDimension();
+		for(SIGNAL signal : SIGNAL.values()){
+			this.setColumn(signal, inputs.getColumn(signal.ordinal()));
+		}
+	}
+
+	private void setColumn(SIGNAL signal, double[] column) {
+		if(column.length != this.length){
+			throw new IllegalArgumentException("Column " + signal + " has " + column.length + " samples, expected " + this.length);
+		}
+		this.columns[signal.ordinal()] = column;
+	}
+
+	/**
+	 * Returns the column of a signal. The returned array is the one backing the window.
+	 * @param signal	The signal
+	 * @return	The column of the signal
+	 */
+	public double[] getColumn(SIGNAL signal) {
+		return this.columns[signal.ordinal()];
+	}
+
+	/**
+	 * Returns the number of samples in the window
+	 * @return	The number of samples in the window
+	 */
+	public int getLength() {
+		return this.length;
+	}
+}
@@ -0,0 +1,186 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+
+/**
+ * Counting kernels of the element-wise threshold comparisons of the APAR rules. This class is the scalar implementation; a
+ * SIMD implementation built on the Vector API of Java 17 (module apar-vector) is selected instead by {@link #get()} when it is
+ * on the class path and the JVM runs with --add-modules jdk.incubator.vector. Every implementation evaluates the expressions
+ * left to right with the same floating-point operations, so that the counts are identical. The constants of the rules enter
+ * as additions, a subtraction being the addition of the opposite; -0.0 is the neutral constant that leaves every value unchanged.
+ */
+public class ComparisonKernels {
+
+	/**
+	 * The name of the class of the SIMD implementation
+	 */
+	public static final String VECTOR_KERNELS = "eu.moeebius.fdd.rules.ahu.apar.vector.VectorComparisonKernels";
+
+	/**
+	 * The system property disabling the SIMD implementation when set to false
+	 */
+	public static final String VECTOR_PROPERTY = "apar.vector";
+
+	private static final ComparisonKernels SCALAR = new ComparisonKernels();
+	private static final ComparisonKernels SELECTED = select();
+
+	/**
+	 * Instantiates the kernels, for the implementations that override them
+	 */
+	protected ComparisonKernels() {
+	}
+
+	private static ComparisonKernels select() {
+		if(!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))){
+			return SCALAR;
+		}
+		try{
+			return (ComparisonKernels) Class.forName(VECTOR_KERNELS).getConstructor().newInstance();
+		}catch(ReflectiveOperationException | LinkageError | RuntimeException e){
+			// the module apar-vector is missing or the JVM does not provide jdk.incubator.vector
+			return SCALAR;
+		}
+	}
+
+	/**
+	 * Returns the fastest implementation available in this JVM
+	 * @return	The SIMD implementation if available, the scalar one otherwise
+	 */
+	public static ComparisonKernels get() {
+		return SELECTED;
+	}
+
+	/**
+	 * Returns the scalar implementation
+	 * @return	The scalar implementation
+	 */
+	public static ComparisonKernels scalar() {
+		return SCALAR;
+	}
+
+	/**
+	 * Returns the name of the implementation
+	 * @return	The name of the implementation
+	 */
+	public String getName() {
+		return "scalar";
+	}
+
+	/**
+	 * Counts the samples where a[ii] > b[ii] + c1 + c2.
+	 * @param a			The compared signal.
+	 * @param b			The reference signal.
+	 * @param c1		The first constant added to the reference.
+	 * @param c2		The second constant added to the reference.
+	 * @param offset	The index of the first sample.
+	 * @param length	The number of samples.
+	 * @return			The number of samples satisfying the comparison.
+	 */
+	public int countGreater(double[] a, double[] b, double c1, double c2, int offset, int length) {
+		int count = 0;
+		for(int ii=offset; ii < offset+length; ii++){
+			if(a[ii] > b[ii] + c1 + c2){
+				count = count+1;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Counts the samples where a[ii] < b[ii] + c1 + c2.
+	 * @param a			The compared signal.
+	 * @param b			The reference signal.
+	 * @param c1		The first constant added to the reference.
+	 * @param c2		The second constant added to the reference.
+	 * @param offset	The index of the first sample.
+	 * @param length	The number of samples.
+	 * @return			The number of samples satisfying the comparison.
+	 */
+	public int countLess(double[] a, double[] b, double c1, double c2, int offset, int length) {
+		int count = 0;
+		for(int ii=offset; ii < offset+length; ii++){
+			if(a[ii] < b[ii] + c1 + c2){
+				count = count+1;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Counts the samples where |a[ii] + c1 - b[ii]| > c2.
+	 * @param a			The compared signal.
+	 * @param b			The reference signal.
+	 * @param c1		The constant added to the compared signal.
+	 * @param c2		The tolerance.
+	 * @param offset	The index of the first sample.
+	 * @param length	The number of samples.
+	 * @return			The number of samples satisfying the comparison.
+	 */
+	public int countAbsGreater(double[] a, double[] b, double c1, double c2, int offset, int length) {
+		int count = 0;
+		for(int ii=offset; ii < offset+length; ii++){
+			if(Math.abs(a[ii] + c1 - b[ii]) > c2){
+				count = count+1;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Counts the samples where a[ii] < min(b[ii], c[ii]) - d.
+	 * @param a			The compared signal.
+	 * @param b			The first reference signal.
+	 * @param c			The second reference signal.
+	 * @param d			The tolerance.
+	 * @param offset	The index of the first sample.
+	 * @param length	The number of samples.
+	 * @return			The number of samples satisfying the comparison.
+	 */
+	public int countBelowMin(double[] a, double[] b, double[] c, double d, int offset, int length) {
+		int count = 0;
+		for(int ii=offset; ii < offset+length; ii++){
+			if(a[ii] < Math.min(b[ii], c[ii]) - d){
+				count = count+1;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Counts the samples where a[ii] > max(b[ii], c[ii]) + d.
+	 * @param a			The compared signal.
+	 * @param b			The first reference signal.
+	 * @param c			The second reference signal.
+	 * @param d			The tolerance.
+	 * @param offset	The index of the first sample.
+	 * @param length	The number of samples.
+	 * @return			The number of samples satisfying the comparison.
+	 */
+	public int countAboveMax(double[] a, double[] b, double[] c, double d, int offset, int length) {
+		int count = 0;
+		for(int ii=offset; ii < offset+length; ii++){
+			if(a[ii] > Math.max(b[ii], c[ii]) + d){
+				count = count+1;
+			}
+		}
+		return count;
+	}
+}
@@ -19,7 +19,6 @@
 
 package eu.moeebius.fdd.rules.ahu.apar;
 
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.RealMatrix;
 
 import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
@@ -34,15 +33,40 @@ import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
  * @author Georgios D. Kontes
  */
 public class DetermineOperationMode {
-	private double mode = 0;
-	private RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-	private RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.EHC), 
-			robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ED), robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ECC)});
+
+	/**
+	 * The module with the default FDD parameters, shared by the static functions. Only its classify methods may be used.
+	 */
+	static final DetermineOperationMode DEFAULT = new DetermineOperationMode();
+
+	private double ehc;
+	private double ed;
+	private double ecc;
 
 	/**
 	 * Instantiates the module that determines the operational model of the AHU unit according to APAR.
 	 */
-	public DetermineOperationMode() {}
+	public DetermineOperationMode() {
+		this(FddParameterSnapshot.DEFAULT);
+	}
+
+	/**
+	 * Instantiates the module that determines the operational model of the AHU unit according to APAR.
+	 * @param robustFDDparameters		The FDD parameters providing the control signal thresholds.
+	 */
+	public DetermineOperationMode(RobustFDDparameters robustFDDparameters) {
+		this(new FddParameterSnapshot(robustFDDparameters));
+	}
+
+	/**
+	 * Instantiates the module that determines the operational model of the AHU unit according to APAR.
+	 * @param parameters		The snapshot of the FDD parameters providing the control signal thresholds.
+	 */
+	public DetermineOperationMode(FddParameterSnapshot parameters) {
+		this.ehc = parameters.get(FDD_PARAMETERS.EHC);
+		this.ed = parameters.get(FDD_PARAMETERS.ED);
+		this.ecc = parameters.get(FDD_PARAMETERS.ECC);
+	}
 
 	/**
 	 * Calculation of the mode of operation of the AHU unit according to APAR.
@@ -51,26 +75,67 @@ public class DetermineOperationMode {
 	 * @return	The operation mode
 	 */
 	public double get(RealMatrix inputs){
-		double uhc = inputs.getEntry(0, 0);
-		double ud = inputs.getEntry(1, 0);
-		double ucc = inputs.getEntry(2, 0);
-		double ehc = parameters.getEntry(0, 0);
-		double ed = parameters.getEntry(1, 0);
-		double ecc = parameters.getEntry(2, 0);
+		return this.classify(inputs.getEntry(0, 0), inputs.getEntry(1, 0), inputs.getEntry(2, 0));
+	}
+
+	/**
+	 * Calculation of the mode of operation of a single sample according to APAR, without any allocation.
+	 * @param uhc		The normalized [0,1] heating coil valve control signal.
+	 * @param ud		The normalized [0,1] mixing box damper control signal.
+	 * @param ucc   	The normalized [0,1] cooling coil valve control signal.
+	 * @return	The operation mode
+	 */
+	public byte classify(double uhc, double ud, double ucc){
+		return classify(uhc, ud, ucc, this.ehc, this.ed, this.ecc);
+	}
+
+	/**
+	 * Calculation of the mode of operation of a single sample according to APAR as a static function with explicit thresholds.
+	 * @param uhc		The normalized [0,1] heating coil valve control signal.
+	 * @param ud		The normalized [0,1] mixing box damper control signal.
+	 * @param ucc   	The normalized [0,1] cooling coil valve control signal.
+	 * @param ehc		The threshold for the heating coil valve control signal.
+	 * @param ed		The threshold for the mixing box damper control signal.
+	 * @param ecc		The threshold for the cooling coil valve control signal.
+	 * @return	The operation mode
+	 */
+	public static byte classify(double uhc, double ud, double ucc, double ehc, double ed, double ecc){
 		if(uhc > ehc && ud < ed && ucc < ecc){
-			this.mode = 1;
+			return 1;
 		}else if (uhc < ehc && ud > ed && ud < (1 - ed) && ucc < ecc){
-			this.mode = 2;
+			return 2;
 		}else if(uhc < ehc && ud > (1 - ed) && ucc > ecc){
-			this.mode = 3;
+			return 3;
 		}else if(uhc < ehc && ud < ed && ucc > ecc){
-			this.mode = 4;
+			return 4;
 		}else{
-			this.mode = 5;
+			return 5;
 		}
-		return this.mode;
 	}
 
+	/**
+	 * Calculation of the mode of operation of every sample according to APAR, without any allocation.
+	 * @param uhc		The normalized [0,1] heating coil valve control signal.
+	 * @param ud		The normalized [0,1] mixing box damper control signal.
+	 * @param ucc   	The normalized [0,1] cooling coil valve control signal.
+	 * @param modes		The array receiving the operation mode of each sample.
+	 */
+	public void classify(double[] uhc, double[] ud, double[] ucc, byte[] modes){
+		this.classify(uhc, ud, ucc, 0, uhc.length, modes);
+	}
 
-
+	/**
+	 * Calculation of the mode of operation of a slice of samples according to APAR, without any allocation.
+	 * @param uhc		The normalized [0,1] heating coil valve control signal.
+	 * @param ud		The normalized [0,1] mixing box damper control signal.
+	 * @param ucc   	The normalized [0,1] cooling coil valve control signal.
+	 * @param offset	The index of the first sample of the slice.
+	 * @param length	The number of samples of the slice.
+	 * @param modes		The array receiving the operation mode of each sample, at the same index as the sample.
+	 */
+	public void classify(double[] uhc, double[] ud, double[] ucc, int offset, int length, byte[] modes){
+		for(int ii=offset; ii < offset+length; ii++){
+			modes[ii] = this.classify(uhc[ii], ud[ii], ucc[ii]);
+		}
+	}
 }
@@ -19,7 +19,6 @@
 
 package eu.moeebius.fdd.rules.ahu.apar;
 
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.RealMatrix;
 
 
@@ -51,9 +50,9 @@ public class DetermineSteadyStateOperationMode {
 		double[] uhc = inputs.getColumn(0);
 		double[] ud = inputs.getColumn(1);
 		double[] ucc = inputs.getColumn(2);
-		this.steadyStateMode = this.detMode.get(new Array2DRowRealMatrix(new double[] {uhc[0], ud[0], ucc[0]}));
+		this.steadyStateMode = this.detMode.classify(uhc[0], ud[0], ucc[0]);
 		for (int ii=1; ii < uhc.length; ii++){
-			if(this.steadyStateMode != this.detMode.get(new Array2DRowRealMatrix(new double[] {uhc[ii], ud[ii], ucc[ii]}))){
+			if(this.steadyStateMode != this.detMode.classify(uhc[ii], ud[ii], ucc[ii])){
 				this.steadyStateMode = 0;
 			}
 		}
@@ -68,14 +67,23 @@ public class DetermineSteadyStateOperationMode {
 	 * @return	The operation mode
 	 */
 	public static double apply(double[] uhc, double[] ud, double[] ucc){
-		DetermineOperationMode determineMode = new DetermineOperationMode();
+		DetermineOperationMode determineMode = DetermineOperationMode.DEFAULT;
 		double ssMode;
-		ssMode = determineMode.get(new Array2DRowRealMatrix(new double[] {uhc[0], ud[0], ucc[0]}));
+		ssMode = determineMode.classify(uhc[0], ud[0], ucc[0]);
 		for (int ii=1; ii < uhc.length; ii++){
-			if(ssMode != determineMode.get(new Array2DRowRealMatrix(new double[] {uhc[ii], ud[ii], ucc[ii]}))){
+			if(ssMode != determineMode.classify(uhc[ii], ud[ii], ucc[ii])){
 				ssMode = 0;
 			}
 		}
 		return ssMode;
 	}
+
+	/**
+	 * Calculation of the steady-state mode of operation of the AHU unit according to APAR from an already computed mode trace.
+	 * @param trace		The operation mode of every sample of the window.
+	 * @return	The operation mode
+	 */
+	public static double apply(ModeTrace trace){
+		return trace.getSteadyStateMode();
+	}
 }
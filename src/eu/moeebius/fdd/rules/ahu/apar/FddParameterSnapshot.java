@@ -0,0 +1,86 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
+
+/**
+ * Immutable copy of the generic FDD parameters for the APAR rule set, held in a primitive array indexed by the ordinal of
+ * {@link FDD_PARAMETERS}. A snapshot can be shared by reference between rules, threads and AHU units.
+ */
+public final class FddParameterSnapshot {
+
+	/**
+	 * The snapshot of the default FDD parameters (@see eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters)
+	 */
+	public static final FddParameterSnapshot DEFAULT = new FddParameterSnapshot(new RobustFDDparameters());
+
+	private final double[] values;
+
+	/**
+	 * Instantiates the snapshot of a set of FDD parameters
+	 * @param robustFDDparameters		The FDD parameters to be copied. Later changes to them do not affect the snapshot.
+	 */
+	public FddParameterSnapshot(RobustFDDparameters robustFDDparameters) {
+		FDD_PARAMETERS[] parameters = FDD_PARAMETERS.values();
+		this.values = new double[parameters.length];
+		for(FDD_PARAMETERS parameter : parameters){
+			this.values[parameter.ordinal()] = robustFDDparameters.getRobustFDDParameters().get(parameter);
+		}
+	}
+
+	private FddParameterSnapshot(double[] values) {
+		this.values = values;
+	}
+
+	/**
+	 * Returns the value of a parameter
+	 * @param parameter		The parameter
+	 * @return	The value of the parameter
+	 */
+	public double get(FDD_PARAMETERS parameter) {
+		return this.values[parameter.ordinal()];
+	}
+
+	/**
+	 * Returns the values of some parameters, e.g. to build the parameters matrix of a rule
+	 * @param parameters	The parameters
+	 * @return	A new array holding the values of the parameters, in the given order
+	 */
+	public double[] values(FDD_PARAMETERS... parameters) {
+		double[] result = new double[parameters.length];
+		for(int ii=0; ii < parameters.length; ii++){
+			result[ii] = this.values[parameters[ii].ordinal()];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a snapshot differing from this one in a single parameter
+	 * @param parameter		The parameter to be changed
+	 * @param value			The new value of the parameter
+	 * @return	A new snapshot; this one is left unchanged
+	 */
+	public FddParameterSnapshot with(FDD_PARAMETERS parameter, double value) {
+		double[] copy = this.values.clone();
+		copy[parameter.ordinal()] = value;
+		return new FddParameterSnapshot(copy);
+	}
+}
@@ -0,0 +1,129 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+
+/**
+ * Evaluation of the complete APAR rule set over the windows of a fleet of AHU units in parallel. The batch is split
+ * recursively over a {@link ForkJoinPool} and every window is evaluated by a single shared {@link AparEngine}, which keeps
+ * no state between calls. Each window only writes its own row of the symptom matrix, so the results do not depend on how
+ * the batch was split.
+ */
+public class FleetEvaluator {
+
+	/**
+	 * The default number of windows below which a batch is evaluated on the current thread
+	 */
+	public static final int LEAF = 16;
+
+	private AparEngine engine;
+	private ForkJoinPool pool;
+	private int leaf;
+
+	/**
+	 * Instantiates the fleet evaluator with the default FDD parameters on the common pool
+	 */
+	public FleetEvaluator() {
+		this(new AparEngine(), ForkJoinPool.commonPool(), LEAF);
+	}
+
+	/**
+	 * Instantiates the fleet evaluator
+	 * @param engine		The engine providing the rules and their parameters, shared by all the workers.
+	 * @param pool			The pool running the evaluation.
+	 * @param leaf			The number of windows below which a batch is no longer split.
+	 */
+	public FleetEvaluator(AparEngine engine, ForkJoinPool pool, int leaf) {
+		if(leaf < 1){
+			throw new IllegalArgumentException("The leaf size must be positive, got " + leaf);
+		}
+		this.engine = engine;
+		this.pool = pool;
+		this.leaf = leaf;
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms for a batch of AHU units.
+	 * @param windows		The window of AHU data of every unit.
+	 * @return				The probability of fault for each unit (row) and each of the 28 APAR rules (column, in the order of {@link SYMPTOM}).
+	 */
+	public double[][] apply(AparWindow[] windows) {
+		double[][] symptoms = new double[windows.length][AparEngine.SYMPTOMS];
+		this.apply(windows, symptoms, null);
+		return symptoms;
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms for a batch of AHU units into preallocated arrays.
+	 * @param windows			The window of AHU data of every unit.
+	 * @param symptoms			The matrix receiving the probability of fault for each unit (row) and each of the 28 APAR rules (column, in the order of {@link SYMPTOM}).
+	 * @param steadyStateModes	The array receiving the steady-state operation mode of every unit, or null if not needed.
+	 */
+	public void apply(AparWindow[] windows, double[][] symptoms, double[] steadyStateModes) {
+		if(symptoms.length < windows.length || (steadyStateModes != null && steadyStateModes.length < windows.length)){
+			throw new IllegalArgumentException("The output arrays are shorter than the batch of " + windows.length + " windows");
+		}
+		this.pool.invoke(new Batch(windows, symptoms, steadyStateModes, 0, windows.length));
+	}
+
+	/**
+	 * Returns the engine shared by the workers
+	 * @return	The engine shared by the workers
+	 */
+	public AparEngine getEngine() {
+		return this.engine;
+	}
+
+	@SuppressWarnings("serial")
+	private class Batch extends RecursiveAction {
+		private AparWindow[] windows;
+		private double[][] symptoms;
+		private double[] steadyStateModes;
+		private int from;
+		private int to;
+
+		Batch(AparWindow[] windows, double[][] symptoms, double[] steadyStateModes, int from, int to) {
+			this.windows = windows;
+			this.symptoms = symptoms;
+			this.steadyStateModes = steadyStateModes;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(this.to - this.from <= FleetEvaluator.this.leaf){
+				for(int ii=this.from; ii < this.to; ii++){
+					double steadyStateMode = FleetEvaluator.this.engine.apply(this.windows[ii], this.symptoms[ii]);
+					if(this.steadyStateModes != null){
+						this.steadyStateModes[ii] = steadyStateMode;
+					}
+				}
+			}else{
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new Batch(this.windows, this.symptoms, this.steadyStateModes, this.from, middle),
+						new Batch(this.windows, this.symptoms, this.steadyStateModes, middle, this.to));
+			}
+		}
+	}
+}
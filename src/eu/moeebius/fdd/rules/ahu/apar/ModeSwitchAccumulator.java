@@ -0,0 +1,139 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+
+/**
+ * Mergeable state of Rule #28 over a chunk of AHU data: the number of mode switches within the chunk together with the
+ * operation modes of its first and last samples. Merging two adjacent chunks adds the switch at their boundary, if any,
+ * so that the switch count of a long history is reduced exactly from the counts of its chunks.
+ */
+public class ModeSwitchAccumulator {
+
+	private byte firstMode;
+	private byte lastMode;
+	private long switchCount;
+	private long length;
+
+	/**
+	 * Instantiates an empty accumulator
+	 */
+	public ModeSwitchAccumulator() {
+		this((byte) 0, (byte) 0, 0, 0);
+	}
+
+	/**
+	 * Instantiates an accumulator from its state, e.g. when received from another process
+	 * @param firstMode		The operation mode of the first sample of the chunk.
+	 * @param lastMode		The operation mode of the last sample of the chunk.
+	 * @param switchCount	The number of mode switches within the chunk.
+	 * @param length		The number of samples of the chunk.
+	 */
+	public ModeSwitchAccumulator(byte firstMode, byte lastMode, long switchCount, long length) {
+		this.firstMode = firstMode;
+		this.lastMode = lastMode;
+		this.switchCount = switchCount;
+		this.length = length;
+	}
+
+	/**
+	 * Appends a chunk of AHU data given by its steady-state runs.
+	 * @param runs		The steady-state runs of the chunk, which directly follows the samples accumulated so far.
+	 */
+	public void add(SteadyStateRuns runs) {
+		int count = runs.getCount();
+		if(count > 0){
+			this.append(runs.getMode(0), runs.getMode(count-1), runs.getSwitchCount(), runs.getEnd(count-1));
+		}
+	}
+
+	/**
+	 * Appends the chunk of another accumulator. Unlike the rule counts, the order matters: the chunk of the other accumulator
+	 * must directly follow the samples accumulated so far.
+	 * @param next		The accumulator of the following chunk.
+	 */
+	public void merge(ModeSwitchAccumulator next) {
+		this.append(next.firstMode, next.lastMode, next.switchCount, next.length);
+	}
+
+	private void append(byte firstMode, byte lastMode, long switchCount, long length) {
+		if(length == 0){
+			return;
+		}
+		if(this.length == 0){
+			this.firstMode = firstMode;
+			this.switchCount = switchCount;
+		}else{
+			this.switchCount = this.switchCount + switchCount + (this.lastMode != firstMode ? 1 : 0);
+		}
+		this.lastMode = lastMode;
+		this.length = this.length + length;
+	}
+
+	/**
+	 * Empties the accumulator
+	 */
+	public void clear() {
+		this.firstMode = 0;
+		this.lastMode = 0;
+		this.switchCount = 0;
+		this.length = 0;
+	}
+
+	/**
+	 * Returns the operation mode of the first sample, 0 if the accumulator is empty
+	 * @return	The operation mode of the first sample
+	 */
+	public byte getFirstMode() {
+		return this.firstMode;
+	}
+
+	/**
+	 * Returns the operation mode of the last sample, 0 if the accumulator is empty
+	 * @return	The operation mode of the last sample
+	 */
+	public byte getLastMode() {
+		return this.lastMode;
+	}
+
+	/**
+	 * Returns the number of mode switches
+	 * @return	The number of mode switches
+	 */
+	public long getSwitchCount() {
+		return this.switchCount;
+	}
+
+	/**
+	 * Returns the number of samples accumulated
+	 * @return	The number of samples
+	 */
+	public long getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Returns the steady-state operation mode of the samples accumulated, 0 if the mode is not constant or the accumulator is empty
+	 * @return	The steady-state operation mode
+	 */
+	public byte getSteadyStateMode() {
+		return this.length > 0 && this.switchCount == 0 ? this.firstMode : 0;
+	}
+}
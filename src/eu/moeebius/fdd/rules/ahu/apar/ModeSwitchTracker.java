@@ -0,0 +1,150 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
+
+/**
+ * Streaming implementation of Rule #28 of the APAR rule set: too many mode switches per hour. The tracker receives
+ * timestamped samples of one AHU unit and keeps the times of the mode switches of the last hour, so that the symptom is
+ * available after every sample without slicing the data into hourly windows.
+ */
+public class ModeSwitchTracker {
+
+	/**
+	 * One hour in milliseconds
+	 */
+	public static final long HOUR = 60L * 60L * 1000L;
+
+	private DetermineOperationMode determineMode;
+	private double mtmax;
+	private long horizon;
+	private long[] switchTimes = new long[16];
+	private int first = 0;
+	private int switchCount = 0;
+	private byte lastMode = 0;
+	private long lastTimestamp = Long.MIN_VALUE;
+
+	/**
+	 * Instantiates the tracker with the default FDD parameters over a one hour horizon
+	 */
+	public ModeSwitchTracker() {
+		this(FddParameterSnapshot.DEFAULT, HOUR);
+	}
+
+	/**
+	 * Instantiates the tracker
+	 * @param robustFDDparameters		The FDD parameters providing the maximum number of mode switches and the mode thresholds.
+	 * @param horizon					The length in milliseconds of the rolling window over which the switches are counted.
+	 */
+	public ModeSwitchTracker(RobustFDDparameters robustFDDparameters, long horizon) {
+		this(new FddParameterSnapshot(robustFDDparameters), horizon);
+	}
+
+	/**
+	 * Instantiates the tracker
+	 * @param parameters		The snapshot of the FDD parameters providing the maximum number of mode switches and the mode thresholds.
+	 * @param horizon			The length in milliseconds of the rolling window over which the switches are counted.
+	 */
+	public ModeSwitchTracker(FddParameterSnapshot parameters, long horizon) {
+		this.determineMode = new DetermineOperationMode(parameters);
+		this.mtmax = parameters.get(FDD_PARAMETERS.MTMAX);
+		this.horizon = horizon;
+	}
+
+	/**
+	 * Adds a sample of the control signals and returns the updated symptom of Rule #28.
+	 * @param timestamp		The time of the sample in milliseconds. Samples must arrive in chronological order.
+	 * @param uhc			The normalized [0,1] heating coil valve control signal.
+	 * @param ud			The normalized [0,1] mixing box damper control signal.
+	 * @param ucc			The normalized [0,1] cooling coil valve control signal.
+	 * @return				The probability of fault.
+	 */
+	public double push(long timestamp, double uhc, double ud, double ucc) {
+		return this.push(timestamp, this.determineMode.classify(uhc, ud, ucc));
+	}
+
+	/**
+	 * Adds an already classified sample and returns the updated symptom of Rule #28.
+	 * @param timestamp		The time of the sample in milliseconds. Samples must arrive in chronological order.
+	 * @param mode			The operation mode of the sample (@see eu.moeebius.fdd.rules.ahu.apar.DetermineOperationMode).
+	 * @return				The probability of fault.
+	 */
+	public double push(long timestamp, byte mode) {
+		if(timestamp < this.lastTimestamp){
+			throw new IllegalArgumentException("Sample at " + timestamp + " arrived after sample at " + this.lastTimestamp);
+		}
+		this.lastTimestamp = timestamp;
+		if(this.lastMode != 0 && mode != this.lastMode){
+			this.addSwitch(timestamp);
+		}
+		this.lastMode = mode;
+		this.expire(timestamp);
+		return this.getSymptom();
+	}
+
+	/**
+	 * Drops the switches that are older than the horizon at the given time.
+	 * @param timestamp		The current time in milliseconds.
+	 */
+	public void expire(long timestamp) {
+		while(this.switchCount > 0 && this.switchTimes[this.first] <= timestamp - this.horizon){
+			this.first = (this.first + 1) % this.switchTimes.length;
+			this.switchCount--;
+		}
+	}
+
+	private void addSwitch(long timestamp) {
+		if(this.switchCount == this.switchTimes.length){
+			long[] grown = new long[2 * this.switchTimes.length];
+			for(int ii=0; ii < this.switchCount; ii++){
+				grown[ii] = this.switchTimes[(this.first + ii) % this.switchTimes.length];
+			}
+			this.switchTimes = grown;
+			this.first = 0;
+		}
+		this.switchTimes[(this.first + this.switchCount) % this.switchTimes.length] = timestamp;
+		this.switchCount++;
+	}
+
+	/**
+	 * Returns the number of mode switches within the horizon of the last sample
+	 * @return	The number of mode switches
+	 */
+	public int getSwitchCount() {
+		return this.switchCount;
+	}
+
+	/**
+	 * Returns the symptom of Rule #28 for the horizon of the last sample
+	 * @return	The probability of fault.
+	 */
+	public double getSymptom() {
+		return this.switchCount > this.mtmax ? 1 : 0;
+	}
+
+	/**
+	 * Returns the operation mode of the last sample, 0 before the first sample
+	 * @return	The operation mode of the last sample
+	 */
+	public byte getMode() {
+		return this.lastMode;
+	}
+}
@@ -0,0 +1,125 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+
+/**
+ * The operation mode of every sample of a window of AHU data, computed once and shared by the steady-state detection
+ * (@see eu.moeebius.fdd.rules.ahu.apar.DetermineSteadyStateOperationMode), Rule #28 and the mode-gated rules.
+ */
+public class ModeTrace {
+
+	private byte[] modes;
+	private int[] switchPositions;
+	private double steadyStateMode;
+
+	/**
+	 * Calculation of the mode trace of a window of AHU data with the default FDD parameters.
+	 * @param uhc		The normalized [0,1] heating coil valve control signal.
+	 * @param ud		The normalized [0,1] mixing box damper control signal.
+	 * @param ucc   	The normalized [0,1] cooling coil valve control signal.
+	 */
+	public ModeTrace(double[] uhc, double[] ud, double[] ucc) {
+		this(new DetermineOperationMode(), uhc, ud, ucc, 0, uhc.length);
+	}
+
+	/**
+	 * Calculation of the mode trace of a slice of AHU data.
+	 * @param determineMode		The module classifying the operation mode of each sample.
+	 * @param uhc		The normalized [0,1] heating coil valve control signal.
+	 * @param ud		The normalized [0,1] mixing box damper control signal.
+	 * @param ucc   	The normalized [0,1] cooling coil valve control signal.
+	 * @param offset	The index of the first sample of the slice.
+	 * @param length	The number of samples of the slice.
+	 */
+	public ModeTrace(DetermineOperationMode determineMode, double[] uhc, double[] ud, double[] ucc, int offset, int length) {
+		this.modes = new byte[length];
+		for(int ii=0; ii < length; ii++){
+			this.modes[ii] = determineMode.classify(uhc[offset+ii], ud[offset+ii], ucc[offset+ii]);
+		}
+		this.locateSwitches();
+	}
+
+	/**
+	 * Instantiates the mode trace from already classified samples.
+	 * @param modes		The operation mode of each sample. The array is referenced, not copied.
+	 */
+	public ModeTrace(byte[] modes) {
+		this.modes = modes;
+		this.locateSwitches();
+	}
+
+	private void locateSwitches() {
+		int switchCount = 0;
+		for(int ii=1; ii < this.modes.length; ii++){
+			if(this.modes[ii] != this.modes[ii-1]){
+				switchCount = switchCount+1;
+			}
+		}
+		this.switchPositions = new int[switchCount];
+		switchCount = 0;
+		for(int ii=1; ii < this.modes.length; ii++){
+			if(this.modes[ii] != this.modes[ii-1]){
+				this.switchPositions[switchCount++] = ii;
+			}
+		}
+		this.steadyStateMode = (this.modes.length > 0 && switchCount == 0) ? this.modes[0] : 0;
+	}
+
+	/**
+	 * Returns the operation mode of every sample. The returned array is the one backing the trace.
+	 * @return	The operation mode of every sample
+	 */
+	public byte[] getModes() {
+		return this.modes;
+	}
+
+	/**
+	 * Returns the number of samples in the trace
+	 * @return	The number of samples in the trace
+	 */
+	public int getLength() {
+		return this.modes.length;
+	}
+
+	/**
+	 * Returns the steady-state operation mode of the window, 0 if the mode is not constant over the window.
+	 * @return	The steady-state operation mode
+	 */
+	public double getSteadyStateMode() {
+		return this.steadyStateMode;
+	}
+
+	/**
+	 * Returns the indexes of the samples whose mode differs from the mode of the previous sample. The returned array is the one backing the trace.
+	 * @return	The positions of the mode switches
+	 */
+	public int[] getSwitchPositions() {
+		return this.switchPositions;
+	}
+
+	/**
+	 * Returns the number of mode switches in the window
+	 * @return	The number of mode switches
+	 */
+	public int getSwitchCount() {
+		return this.switchPositions.length;
+	}
+}
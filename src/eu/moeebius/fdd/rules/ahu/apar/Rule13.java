@@ -32,9 +32,7 @@ public class Rule13 implements AparInterface {
 	private String name = "Rule13";
 	private double steadyStateMode = 0;
 	private RealMatrix inputs;
-	private RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-	private RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ECC),
-			robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ET)});
+	private RealMatrix parameters = new Array2DRowRealMatrix(FddParameterSnapshot.DEFAULT.values(FDD_PARAMETERS.ECC, FDD_PARAMETERS.ET));
 	private double result;
 
 	/**
@@ -95,22 +93,18 @@ public class Rule13 implements AparInterface {
 
 	@Override
 	public double apply() {
-		double[] ucc = this.inputs.getColumn(0);
-		double[] tsa = this.inputs.getColumn(1);
-		double[] tsas = this.inputs.getColumn(2);
-		double ecc = this.parameters.getEntry(0, 0);
-		double et = this.parameters.getEntry(1, 0);
-		this.result = 0;
-		if(this.steadyStateMode == 3){
-			for(int ii=0; ii < tsa.length; ii++){
-				if(Math.abs(ucc[ii] - 1) < ecc){
-					if(tsa[ii] - tsas[ii] >= et){
-						this.result = this.result+1;
-					}
-				}
-			}
-		}
-		return this.result/tsa.length;
+		return this.apply(this.steadyStateMode, 0, this.inputs.getRowDimension(), new double[][] {this.inputs.getColumn(0), this.inputs.getColumn(1), this.inputs.getColumn(2)});
+	}
+
+	@Override
+	public double apply(double steadyStateMode, double[][] columns) {
+		return this.apply(steadyStateMode, 0, columns[0].length, columns);
+	}
+
+	@Override
+	public double apply(double steadyStateMode, int offset, int length, double[][] columns) {
+		this.result = kernel(steadyStateMode, offset, length, columns[0], columns[1], columns[2], this.parameters.getEntry(0, 0), this.parameters.getEntry(1, 0));
+		return this.result;
 	}
 
 	/**
@@ -122,14 +116,25 @@ public class Rule13 implements AparInterface {
 	 * @return						The probability of fault.
 	 */
 	public static double apply(double steadyStateMode, double[] ucc, double[] tsa, double[] tsas){
-		RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-		RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ECC),
-				robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ET)});
-		double ecc = parameters.getEntry(0, 0);
-		double et = parameters.getEntry(1, 0);
+		return kernel(steadyStateMode, 0, tsa.length, ucc, tsa, tsas, FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ECC), FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ET));
+	}
+
+	/**
+	 * Stateless kernel of Rule #13 of APAR, shared by the instance and static functions and by {@link AparKernel}.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param ucc					The normalized [0,1] cooling coil valve control signal.
+	 * @param tsa					The supply air temperature.
+	 * @param tsas					The supply air temperature setpoint.
+	 * @param ecc					The threshold for the cooling coil valve control signal.
+	 * @param et					The threshold for errors in temperature measurements.
+	 * @return						The probability of fault.
+	 */
+	static double kernel(double steadyStateMode, int offset, int length, double[] ucc, double[] tsa, double[] tsas, double ecc, double et) {
 		double result = 0;
 		if(steadyStateMode == 3){
-			for(int ii=0; ii < tsa.length; ii++){
+			for(int ii=offset; ii < offset+length; ii++){
 				if(Math.abs(ucc[ii] - 1) < ecc){
 					if(tsa[ii] - tsas[ii] >= et){
 						result = result+1;
@@ -137,6 +142,39 @@ public class Rule13 implements AparInterface {
 				}
 			}
 		}
-		return result/tsa.length;
+		return result/length;
+	}
+
+	/**
+	 * Violation bitmap of Rule #13 of APAR over a slice, built without data-dependent branches. Bit ii of the bitmap
+	 * is set when the sample offset+ii violates the rule; no bit is set when the rule does not apply in the steady-state mode.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param ucc					The normalized [0,1] cooling coil valve control signal.
+	 * @param tsa					The supply air temperature.
+	 * @param tsas					The supply air temperature setpoint.
+	 * @param ecc					The threshold for the cooling coil valve control signal.
+	 * @param et					The threshold for errors in temperature measurements.
+	 * @param bitmap				The array receiving the bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return						The number of violations.
+	 */
+	static int violations(double steadyStateMode, int offset, int length, double[] ucc, double[] tsa, double[] tsas, double ecc, double et, long[] bitmap) {
+		if(steadyStateMode != 3){
+			ViolationBitmaps.clear(bitmap, length);
+			return 0;
+		}
+		int count = 0;
+		for(int ww=0; ww < ViolationBitmaps.words(length); ww++){
+			int start = offset + 64*ww;
+			int end = Math.min(offset+length, start+64);
+			long word = 0;
+			for(int ii=start; ii < end; ii++){
+				word |= (Math.abs(ucc[ii] - 1) < ecc & tsa[ii] - tsas[ii] >= et ? 1L : 0L) << (ii - start);
+			}
+			bitmap[ww] = word;
+			count = count + Long.bitCount(word);
+		}
+		return count;
 	}
 }
@@ -32,8 +32,7 @@ public class Rule14 implements AparInterface {
 	private String name = "Rule14";
 	private double steadyStateMode = 0;
 	private RealMatrix inputs;
-	private RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-	private RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ECC)});
+	private RealMatrix parameters = new Array2DRowRealMatrix(FddParameterSnapshot.DEFAULT.values(FDD_PARAMETERS.ECC));
 	private double result;
 
 	/**
@@ -92,17 +91,18 @@ public class Rule14 implements AparInterface {
 
 	@Override
 	public double apply() {
-		double[] ucc = this.inputs.getColumn(0);
-		double et = this.parameters.getEntry(0, 0);
-		this.result = 0;
-		if(this.steadyStateMode == 3){
-			for(int ii=0; ii < ucc.length; ii++){
-				if(Math.abs(ucc[ii] - 1) < et){
-					this.result = this.result+1;	
-				}
-			}
-		}
-		return this.result/ucc.length;
+		return this.apply(this.steadyStateMode, 0, this.inputs.getRowDimension(), new double[][] {this.inputs.getColumn(0)});
+	}
+
+	@Override
+	public double apply(double steadyStateMode, double[][] columns) {
+		return this.apply(steadyStateMode, 0, columns[0].length, columns);
+	}
+
+	@Override
+	public double apply(double steadyStateMode, int offset, int length, double[][] columns) {
+		this.result = kernel(steadyStateMode, offset, length, columns[0], this.parameters.getEntry(0, 0));
+		return this.result;
 	}
 
 	/**
@@ -112,17 +112,57 @@ public class Rule14 implements AparInterface {
 	 * @return						The probability of fault.
 	 */
 	public static double apply(double steadyStateMode, double[] ucc){
-		RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-		RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ECC)});
-		double et = parameters.getEntry(0, 0);
+		return kernel(steadyStateMode, 0, ucc.length, ucc, FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ECC));
+	}
+
+	/**
+	 * Stateless kernel of Rule #14 of APAR, shared by the instance and static functions and by {@link AparKernel}.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param ucc					The normalized [0,1] cooling coil valve control signal.
+	 * @param et					The threshold for errors in temperature measurements.
+	 * @return						The probability of fault.
+	 */
+	static double kernel(double steadyStateMode, int offset, int length, double[] ucc, double et) {
 		double result = 0;
 		if(steadyStateMode == 3){
-			for(int ii=0; ii < ucc.length; ii++){
+			for(int ii=offset; ii < offset+length; ii++){
 				if(Math.abs(ucc[ii] - 1) < et){
-					result = result+1;
+					result = result+1;	
 				}
 			}
 		}
-		return result/ucc.length;
+		return result/length;
+	}
+
+	/**
+	 * Violation bitmap of Rule #14 of APAR over a slice, built without data-dependent branches. Bit ii of the bitmap
+	 * is set when the sample offset+ii violates the rule; no bit is set when the rule does not apply in the steady-state mode.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param ucc					The normalized [0,1] cooling coil valve control signal.
+	 * @param et					The threshold for errors in temperature measurements.
+	 * @param bitmap				The array receiving the bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return						The number of violations.
+	 */
+	static int violations(double steadyStateMode, int offset, int length, double[] ucc, double et, long[] bitmap) {
+		if(steadyStateMode != 3){
+			ViolationBitmaps.clear(bitmap, length);
+			return 0;
+		}
+		int count = 0;
+		for(int ww=0; ww < ViolationBitmaps.words(length); ww++){
+			int start = offset + 64*ww;
+			int end = Math.min(offset+length, start+64);
+			long word = 0;
+			for(int ii=start; ii < end; ii++){
+				word |= (Math.abs(ucc[ii] - 1) < et ? 1L : 0L) << (ii - start);
+			}
+			bitmap[ww] = word;
+			count = count + Long.bitCount(word);
+		}
+		return count;
 	}
 }
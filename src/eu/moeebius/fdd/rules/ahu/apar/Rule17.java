@@ -32,9 +32,7 @@ public class Rule17 implements AparInterface {
 	private String name = "Rule17";
 	private double steadyStateMode = 0;
 	private RealMatrix inputs;
-	private RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-	private RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.DTRF), 
-			robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ET)});
+	private RealMatrix parameters = new Array2DRowRealMatrix(FddParameterSnapshot.DEFAULT.values(FDD_PARAMETERS.DTRF, FDD_PARAMETERS.ET));
 	private double result;
 
 	/**
@@ -93,19 +91,18 @@ public class Rule17 implements AparInterface {
 
 	@Override
 	public double apply() {
-		double[] tsa = this.inputs.getColumn(0);
-		double[] tra = this.inputs.getColumn(1);
-		double dtrf = this.parameters.getEntry(0, 0);
-		double et = this.parameters.getEntry(1, 0);
-		this.result = 0;
-		if(this.steadyStateMode == 4){
-			for(int ii=0; ii < tsa.length; ii++){
-				if(tsa[ii] > tra[ii] - dtrf + et){
-					this.result = this.result+1;	
-				}
-			}
-		}
-		return this.result/tsa.length;
+		return this.apply(this.steadyStateMode, 0, this.inputs.getRowDimension(), new double[][] {this.inputs.getColumn(0), this.inputs.getColumn(1)});
+	}
+
+	@Override
+	public double apply(double steadyStateMode, double[][] columns) {
+		return this.apply(steadyStateMode, 0, columns[0].length, columns);
+	}
+
+	@Override
+	public double apply(double steadyStateMode, int offset, int length, double[][] columns) {
+		this.result = kernel(steadyStateMode, offset, length, columns[0], columns[1], this.parameters.getEntry(0, 0), this.parameters.getEntry(1, 0));
+		return this.result;
 	}
 
 	/**
@@ -116,19 +113,57 @@ public class Rule17 implements AparInterface {
 	 * @return						The probability of fault.
 	 */
 	public static double apply(double steadyStateMode, double[] tsa, double[] tra){
-		RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-		RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.DTRF),
-				robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ET)});
-		double dtrf = parameters.getEntry(0, 0);
-		double et = parameters.getEntry(1, 0);
+		return kernel(steadyStateMode, 0, tsa.length, tsa, tra, FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.DTRF), FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ET));
+	}
+
+	/**
+	 * Stateless kernel of Rule #17 of APAR, shared by the instance and static functions and by {@link AparKernel}.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param tsa					The supply air temperature.
+	 * @param tra					The return air temperature.
+	 * @param dtrf					The temperature rise across the return fan.
+	 * @param et					The threshold for errors in temperature measurements.
+	 * @return						The probability of fault.
+	 */
+	static double kernel(double steadyStateMode, int offset, int length, double[] tsa, double[] tra, double dtrf, double et) {
 		double result = 0;
 		if(steadyStateMode == 4){
-			for(int ii=0; ii < tsa.length; ii++){
-				if(tsa[ii] > tra[ii] - dtrf + et){
-					result = result+1;
-				}
+			result = ComparisonKernels.get().countGreater(tsa, tra, -dtrf, et, offset, length);
+		}
+		return result/length;
+	}
+
+	/**
+	 * Violation bitmap of Rule #17 of APAR over a slice, built without data-dependent branches. Bit ii of the bitmap
+	 * is set when the sample offset+ii violates the rule; no bit is set when the rule does not apply in the steady-state mode.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param tsa					The supply air temperature.
+	 * @param tra					The return air temperature.
+	 * @param dtrf					The temperature rise across the return fan.
+	 * @param et					The threshold for errors in temperature measurements.
+	 * @param bitmap				The array receiving the bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return						The number of violations.
+	 */
+	static int violations(double steadyStateMode, int offset, int length, double[] tsa, double[] tra, double dtrf, double et, long[] bitmap) {
+		if(steadyStateMode != 4){
+			ViolationBitmaps.clear(bitmap, length);
+			return 0;
+		}
+		int count = 0;
+		for(int ww=0; ww < ViolationBitmaps.words(length); ww++){
+			int start = offset + 64*ww;
+			int end = Math.min(offset+length, start+64);
+			long word = 0;
+			for(int ii=start; ii < end; ii++){
+				word |= (tsa[ii] > tra[ii] - dtrf + et ? 1L : 0L) << (ii - start);
 			}
+			bitmap[ww] = word;
+			count = count + Long.bitCount(word);
 		}
-		return result/tsa.length;
+		return count;
 	}
 }
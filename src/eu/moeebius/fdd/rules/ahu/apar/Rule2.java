@@ -32,9 +32,7 @@ public class Rule2 implements AparInterface {
 	private String name = "Rule2";
 	private double steadyStateMode = 0;
 	private RealMatrix inputs;
-	private RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-	private RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.DTMIN),
-			robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.QOA_QSA_MIN), robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.EF)});
+	private RealMatrix parameters = new Array2DRowRealMatrix(FddParameterSnapshot.DEFAULT.values(FDD_PARAMETERS.DTMIN, FDD_PARAMETERS.QOA_QSA_MIN, FDD_PARAMETERS.EF));
 	private double result;
 
 	/**
@@ -94,25 +92,18 @@ public class Rule2 implements AparInterface {
 
 	@Override
 	public double apply() {
-		double[] tra = inputs.getColumn(0);
-		double[] toa = inputs.getColumn(1);
-		double[] tma = inputs.getColumn(2);
-		double dtmin = this.parameters.getEntry(0, 0);
-		double qua_qsa_min = this.parameters.getEntry(1, 0);
-		double ef = this.parameters.getEntry(2, 0);
-		this.result = 0;
-		if(this.steadyStateMode == 1){
-			for(int ii=0; ii < tra.length; ii++){
-				double Qoa = tma[ii] - tra[ii];
-				double Qsa = toa[ii] - tra[ii];
-				if(Math.abs(tra[ii] - tma[ii]) >= dtmin){
-					if(Math.abs(Qoa/Qsa - qua_qsa_min) > ef){
-						this.result = this.result+1;
-					}
-				}
-			}
-		}
-		return this.result/tra.length;
+		return this.apply(this.steadyStateMode, 0, this.inputs.getRowDimension(), new double[][] {this.inputs.getColumn(0), this.inputs.getColumn(1), this.inputs.getColumn(2)});
+	}
+
+	@Override
+	public double apply(double steadyStateMode, double[][] columns) {
+		return this.apply(steadyStateMode, 0, columns[0].length, columns);
+	}
+
+	@Override
+	public double apply(double steadyStateMode, int offset, int length, double[][] columns) {
+		this.result = kernel(steadyStateMode, offset, length, columns[0], columns[1], columns[2], this.parameters.getEntry(0, 0), this.parameters.getEntry(1, 0), this.parameters.getEntry(2, 0));
+		return this.result;
 	}
 
 	/**
@@ -124,15 +115,26 @@ public class Rule2 implements AparInterface {
 	 * @return						The probability of fault.
 	 */
 	public static double apply(double steadyStateMode, double[] tra, double[] toa, double[] tma){
-		RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-		RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.DTMIN),
-				robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.QOA_QSA_MIN), robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.EF)});
-		double dtmin = parameters.getEntry(0, 0);
-		double qua_qsa_min = parameters.getEntry(1, 0);
-		double ef = parameters.getEntry(2, 0);
+		return kernel(steadyStateMode, 0, tra.length, tra, toa, tma, FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.DTMIN), FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.QOA_QSA_MIN), FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.EF));
+	}
+
+	/**
+	 * Stateless kernel of Rule #2 of APAR, shared by the instance and static functions and by {@link AparKernel}.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param tra					The return air temperature.
+	 * @param toa					The outdoor air temperature.
+	 * @param tma					The mixed air temperature.
+	 * @param dtmin					The threshold on the minimum temperature difference between the return and outdoor air.
+	 * @param qua_qsa_min			The threshold on the minimum outdoor air fraction.
+	 * @param ef					The threshold for errors in airflows.
+	 * @return						The probability of fault.
+	 */
+	static double kernel(double steadyStateMode, int offset, int length, double[] tra, double[] toa, double[] tma, double dtmin, double qua_qsa_min, double ef) {
 		double result = 0;
 		if(steadyStateMode == 1){
-			for(int ii=0; ii < tra.length; ii++){
+			for(int ii=offset; ii < offset+length; ii++){
 				double Qoa = tma[ii] - tra[ii];
 				double Qsa = toa[ii] - tra[ii];
 				if(Math.abs(tra[ii] - tma[ii]) >= dtmin){
@@ -142,7 +144,42 @@ public class Rule2 implements AparInterface {
 				}
 			}
 		}
-		return result/tra.length;
+		return result/length;
 	}
-}
 
+	/**
+	 * Violation bitmap of Rule #2 of APAR over a slice, built without data-dependent branches. Bit ii of the bitmap
+	 * is set when the sample offset+ii violates the rule; no bit is set when the rule does not apply in the steady-state mode.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param tra					The return air temperature.
+	 * @param toa					The outdoor air temperature.
+	 * @param tma					The mixed air temperature.
+	 * @param dtmin					The threshold on the minimum temperature difference between the return and outdoor air.
+	 * @param qua_qsa_min			The threshold on the minimum outdoor air fraction.
+	 * @param ef					The threshold for errors in airflows.
+	 * @param bitmap				The array receiving the bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return						The number of violations.
+	 */
+	static int violations(double steadyStateMode, int offset, int length, double[] tra, double[] toa, double[] tma, double dtmin, double qua_qsa_min, double ef, long[] bitmap) {
+		if(steadyStateMode != 1){
+			ViolationBitmaps.clear(bitmap, length);
+			return 0;
+		}
+		int count = 0;
+		for(int ww=0; ww < ViolationBitmaps.words(length); ww++){
+			int start = offset + 64*ww;
+			int end = Math.min(offset+length, start+64);
+			long word = 0;
+			for(int ii=start; ii < end; ii++){
+				double Qoa = tma[ii] - tra[ii];
+				double Qsa = toa[ii] - tra[ii];
+				word |= (Math.abs(tra[ii] - tma[ii]) >= dtmin & Math.abs(Qoa/Qsa - qua_qsa_min) > ef ? 1L : 0L) << (ii - start);
+			}
+			bitmap[ww] = word;
+			count = count + Long.bitCount(word);
+		}
+		return count;
+	}
+}
@@ -32,9 +32,7 @@ public class Rule21 implements AparInterface {
 	private String name = "Rule21";
 	private double steadyStateMode = 0;
 	private RealMatrix inputs;
-	private RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-	private RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ECC),
-			robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.EHC), robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ED)});
+	private RealMatrix parameters = new Array2DRowRealMatrix(FddParameterSnapshot.DEFAULT.values(FDD_PARAMETERS.ECC, FDD_PARAMETERS.EHC, FDD_PARAMETERS.ED));
 	private double result;
 
 	/**
@@ -95,21 +93,18 @@ public class Rule21 implements AparInterface {
 
 	@Override
 	public double apply() {
-		double[] ucc = this.inputs.getColumn(0);
-		double[] uhc = this.inputs.getColumn(1);
-		double[] ud = this.inputs.getColumn(2);
-		double ecc = this.parameters.getEntry(0, 0);
-		double ehc = this.parameters.getEntry(1, 0);
-		double ed = this.parameters.getEntry(2, 0);
-		this.result = 0;
-		if(this.steadyStateMode == 5){
-			for(int ii=0; ii < ucc.length; ii++){
-				if(ucc[ii] > ecc && uhc[ii] > ehc && ud[ii] > ed && ud[ii] < (1 - ed)){
-					this.result = this.result+1;
-				}
-			}
-		}
-		return this.result/ucc.length;
+		return this.apply(this.steadyStateMode, 0, this.inputs.getRowDimension(), new double[][] {this.inputs.getColumn(0), this.inputs.getColumn(1), this.inputs.getColumn(2)});
+	}
+
+	@Override
+	public double apply(double steadyStateMode, double[][] columns) {
+		return this.apply(steadyStateMode, 0, columns[0].length, columns);
+	}
+
+	@Override
+	public double apply(double steadyStateMode, int offset, int length, double[][] columns) {
+		this.result = kernel(steadyStateMode, offset, length, columns[0], columns[1], columns[2], this.parameters.getEntry(0, 0), this.parameters.getEntry(1, 0), this.parameters.getEntry(2, 0));
+		return this.result;
 	}
 
 	/**
@@ -121,20 +116,65 @@ public class Rule21 implements AparInterface {
 	 * @return						The probability of fault.
 	 */
 	public static double apply(double steadyStateMode, double[] ucc, double[] uhc, double[] ud){
-		RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-		RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ECC),
-				robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.EHC), robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ED)});
-		double ecc = parameters.getEntry(0, 0);
-		double ehc = parameters.getEntry(1, 0);
-		double ed = parameters.getEntry(2, 0);
+		return kernel(steadyStateMode, 0, ucc.length, ucc, uhc, ud, FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ECC), FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.EHC), FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ED));
+	}
+
+	/**
+	 * Stateless kernel of Rule #21 of APAR, shared by the instance and static functions and by {@link AparKernel}.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param ucc					The normalized [0,1] cooling coil valve control signal.
+	 * @param uhc					The normalized [0,1] heating coil valve control signal.
+	 * @param ud					The normalized [0,1] mixing mode damper control signal.
+	 * @param ecc					The threshold for the cooling coil valve control signal.
+	 * @param ehc					The threshold for the heating coil valve control signal.
+	 * @param ed					The threshold for the mixing box damper control signal.
+	 * @return						The probability of fault.
+	 */
+	static double kernel(double steadyStateMode, int offset, int length, double[] ucc, double[] uhc, double[] ud, double ecc, double ehc, double ed) {
 		double result = 0;
 		if(steadyStateMode == 5){
-			for(int ii=0; ii < ucc.length; ii++){
+			for(int ii=offset; ii < offset+length; ii++){
 				if(ucc[ii] > ecc && uhc[ii] > ehc && ud[ii] > ed && ud[ii] < (1 - ed)){
 					result = result+1;
 				}
 			}
 		}
-		return result/ucc.length;
+		return result/length;
+	}
+
+	/**
+	 * Violation bitmap of Rule #21 of APAR over a slice, built without data-dependent branches. Bit ii of the bitmap
+	 * is set when the sample offset+ii violates the rule; no bit is set when the rule does not apply in the steady-state mode.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param ucc					The normalized [0,1] cooling coil valve control signal.
+	 * @param uhc					The normalized [0,1] heating coil valve control signal.
+	 * @param ud					The normalized [0,1] mixing mode damper control signal.
+	 * @param ecc					The threshold for the cooling coil valve control signal.
+	 * @param ehc					The threshold for the heating coil valve control signal.
+	 * @param ed					The threshold for the mixing box damper control signal.
+	 * @param bitmap				The array receiving the bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return						The number of violations.
+	 */
+	static int violations(double steadyStateMode, int offset, int length, double[] ucc, double[] uhc, double[] ud, double ecc, double ehc, double ed, long[] bitmap) {
+		if(steadyStateMode != 5){
+			ViolationBitmaps.clear(bitmap, length);
+			return 0;
+		}
+		int count = 0;
+		for(int ww=0; ww < ViolationBitmaps.words(length); ww++){
+			int start = offset + 64*ww;
+			int end = Math.min(offset+length, start+64);
+			long word = 0;
+			for(int ii=start; ii < end; ii++){
+				word |= (ucc[ii] > ecc & uhc[ii] > ehc & ud[ii] > ed & ud[ii] < (1 - ed) ? 1L : 0L) << (ii - start);
+			}
+			bitmap[ww] = word;
+			count = count + Long.bitCount(word);
+		}
+		return count;
 	}
 }
@@ -32,9 +32,7 @@ public class Rule22 implements AparInterface {
 	private String name = "Rule22";
 	private double steadyStateMode = 0;
 	private RealMatrix inputs;
-	private RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-	private RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.EHC),
-			robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ECC)});
+	private RealMatrix parameters = new Array2DRowRealMatrix(FddParameterSnapshot.DEFAULT.values(FDD_PARAMETERS.EHC, FDD_PARAMETERS.ECC));
 	private double result;
 
 	/**
@@ -95,19 +93,18 @@ public class Rule22 implements AparInterface {
 
 	@Override
 	public double apply() {
-		double[] uhc =  this.inputs.getColumn(0);
-		double[] ucc =  this.inputs.getColumn(1);
-		double ehc =  this.parameters.getEntry(0, 0);
-		double ecc =  this.parameters.getEntry(1, 0);
-		this.result = 0;
-		if(this.steadyStateMode == 5){
-			for(int ii=0; ii < ucc.length; ii++){
-				if(uhc[ii] > ehc && ucc[ii] > ecc){
-					this.result = this.result+1;
-				}
-			}
-		}
-		return this.result/ucc.length;
+		return this.apply(this.steadyStateMode, 0, this.inputs.getRowDimension(), new double[][] {this.inputs.getColumn(0), this.inputs.getColumn(1)});
+	}
+
+	@Override
+	public double apply(double steadyStateMode, double[][] columns) {
+		return this.apply(steadyStateMode, 0, columns[0].length, columns);
+	}
+
+	@Override
+	public double apply(double steadyStateMode, int offset, int length, double[][] columns) {
+		this.result = kernel(steadyStateMode, offset, length, columns[0], columns[1], this.parameters.getEntry(0, 0), this.parameters.getEntry(1, 0));
+		return this.result;
 	}
 
 	/**
@@ -118,19 +115,61 @@ public class Rule22 implements AparInterface {
 	 * @return						The probability of fault.
 	 */
 	public static double apply(double steadyStateMode, double[] ucc, double[] uhc){
-		RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-		RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.EHC),
-				robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ECC)});
-		double ehc = parameters.getEntry(0, 0);
-		double ecc = parameters.getEntry(1, 0);
+		return kernel(steadyStateMode, 0, ucc.length, uhc, ucc, FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.EHC), FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ECC));
+	}
+
+	/**
+	 * Stateless kernel of Rule #22 of APAR, shared by the instance and static functions and by {@link AparKernel}.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param uhc					The normalized [0,1] heating coil valve control signal.
+	 * @param ucc					The normalized [0,1] cooling coil valve control signal.
+	 * @param ehc					The threshold for the heating coil valve control signal.
+	 * @param ecc					The threshold for the cooling coil valve control signal.
+	 * @return						The probability of fault.
+	 */
+	static double kernel(double steadyStateMode, int offset, int length, double[] uhc, double[] ucc, double ehc, double ecc) {
 		double result = 0;
 		if(steadyStateMode == 5){
-			for(int ii=0; ii < ucc.length; ii++){
+			for(int ii=offset; ii < offset+length; ii++){
 				if(uhc[ii] > ehc && ucc[ii] > ecc){
 					result = result+1;
 				}
 			}
 		}
-		return result/ucc.length;
+		return result/length;
+	}
+
+	/**
+	 * Violation bitmap of Rule #22 of APAR over a slice, built without data-dependent branches. Bit ii of the bitmap
+	 * is set when the sample offset+ii violates the rule; no bit is set when the rule does not apply in the steady-state mode.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param uhc					The normalized [0,1] heating coil valve control signal.
+	 * @param ucc					The normalized [0,1] cooling coil valve control signal.
+	 * @param ehc					The threshold for the heating coil valve control signal.
+	 * @param ecc					The threshold for the cooling coil valve control signal.
+	 * @param bitmap				The array receiving the bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return						The number of violations.
+	 */
+	static int violations(double steadyStateMode, int offset, int length, double[] uhc, double[] ucc, double ehc, double ecc, long[] bitmap) {
+		if(steadyStateMode != 5){
+			ViolationBitmaps.clear(bitmap, length);
+			return 0;
+		}
+		int count = 0;
+		for(int ww=0; ww < ViolationBitmaps.words(length); ww++){
+			int start = offset + 64*ww;
+			int end = Math.min(offset+length, start+64);
+			long word = 0;
+			for(int ii=start; ii < end; ii++){
+				word |= (uhc[ii] > ehc & ucc[ii] > ecc ? 1L : 0L) << (ii - start);
+			}
+			bitmap[ww] = word;
+			count = count + Long.bitCount(word);
+		}
+		return count;
 	}
 }
@@ -32,8 +32,7 @@ public class Rule27 implements AparInterface {
 	private String name = "Rule27";
 	private double steadyStateMode = 0;
 	private RealMatrix inputs;
-	private RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-	private RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ET)});
+	private RealMatrix parameters = new Array2DRowRealMatrix(FddParameterSnapshot.DEFAULT.values(FDD_PARAMETERS.ET));
 	private double result;
 
 	/**
@@ -92,19 +91,18 @@ public class Rule27 implements AparInterface {
 
 	@Override
 	public double apply() {
-		double[] tma = this.inputs.getColumn(0);
-		double[] tra = this.inputs.getColumn(1);
-		double[] toa = this.inputs.getColumn(2);
-		double et = this.parameters.getEntry(0, 0);
-		this.result = 0;
-		if(this.steadyStateMode > 0){
-			for(int ii=0; ii < tma.length; ii++){
-				if(tma[ii] > Math.max(tra[ii],  toa[ii]) + et){
-					this.result = this.result+1;	
-				}
-			}
-		}
-		return this.result/tma.length;
+		return this.apply(this.steadyStateMode, 0, this.inputs.getRowDimension(), new double[][] {this.inputs.getColumn(0), this.inputs.getColumn(1), this.inputs.getColumn(2)});
+	}
+
+	@Override
+	public double apply(double steadyStateMode, double[][] columns) {
+		return this.apply(steadyStateMode, 0, columns[0].length, columns);
+	}
+
+	@Override
+	public double apply(double steadyStateMode, int offset, int length, double[][] columns) {
+		this.result = kernel(steadyStateMode, offset, length, columns[0], columns[1], columns[2], this.parameters.getEntry(0, 0));
+		return this.result;
 	}
 
 	/**
@@ -116,17 +114,57 @@ public class Rule27 implements AparInterface {
 	 * @return						The probability of fault.
 	 */
 	public static double apply(double steadyStateMode, double[] tma, double[] tra, double[] toa){
-		RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-		RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.ET)});
-		double et = parameters.getEntry(0, 0);
+		return kernel(steadyStateMode, 0, tma.length, tma, tra, toa, FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ET));
+	}
+
+	/**
+	 * Stateless kernel of Rule #27 of APAR, shared by the instance and static functions and by {@link AparKernel}.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param tma					The mixed air temperature.
+	 * @param tra					The return air temperature.
+	 * @param toa					The outdoor air temperature.
+	 * @param et					The threshold for errors in temperature measurements.
+	 * @return						The probability of fault.
+	 */
+	static double kernel(double steadyStateMode, int offset, int length, double[] tma, double[] tra, double[] toa, double et) {
 		double result = 0;
 		if(steadyStateMode > 0){
-			for(int ii=0; ii < tma.length; ii++){
-				if(tma[ii] > Math.max(tra[ii],  toa[ii]) + et){
-					result = result+1;
-				}
+			result = ComparisonKernels.get().countAboveMax(tma, tra, toa, et, offset, length);
+		}
+		return result/length;
+	}
+
+	/**
+	 * Violation bitmap of Rule #27 of APAR over a slice, built without data-dependent branches. Bit ii of the bitmap
+	 * is set when the sample offset+ii violates the rule; no bit is set when the rule does not apply in the steady-state mode.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param tma					The mixed air temperature.
+	 * @param tra					The return air temperature.
+	 * @param toa					The outdoor air temperature.
+	 * @param et					The threshold for errors in temperature measurements.
+	 * @param bitmap				The array receiving the bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return						The number of violations.
+	 */
+	static int violations(double steadyStateMode, int offset, int length, double[] tma, double[] tra, double[] toa, double et, long[] bitmap) {
+		if(!(steadyStateMode > 0)){
+			ViolationBitmaps.clear(bitmap, length);
+			return 0;
+		}
+		int count = 0;
+		for(int ww=0; ww < ViolationBitmaps.words(length); ww++){
+			int start = offset + 64*ww;
+			int end = Math.min(offset+length, start+64);
+			long word = 0;
+			for(int ii=start; ii < end; ii++){
+				word |= (tma[ii] > Math.max(tra[ii], toa[ii]) + et ? 1L : 0L) << (ii - start);
 			}
+			bitmap[ww] = word;
+			count = count + Long.bitCount(word);
 		}
-		return result/tma.length;
+		return count;
 	}
 }
@@ -30,13 +30,10 @@ import eu.moeebius.fdd.rules.ahu.apar.RobustFDDparameters.FDD_PARAMETERS;
 public class Rule28 implements AparInterface {
 
 	private String name = "Rule28";
-	@SuppressWarnings("unused")
 	private double steadyStateMode = 0;
 	private RealMatrix inputs;
-	private RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-	private RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.MTMAX)});
+	private RealMatrix parameters = new Array2DRowRealMatrix(FddParameterSnapshot.DEFAULT.values(FDD_PARAMETERS.MTMAX));
 	private double result;
-	private DetermineOperationMode detMode = new DetermineOperationMode();
 
 	/**
 	 * Instantiates Rule #28 of the APAR rule set
@@ -96,19 +93,30 @@ public class Rule28 implements AparInterface {
 
 	@Override
 	public double apply() {
-		double[] uhc = this.inputs.getColumn(0);
-		double[] ud = this.inputs.getColumn(1);
-		double[] ucc = this.inputs.getColumn(2);
+		return this.apply(this.steadyStateMode, 0, this.inputs.getRowDimension(), new double[][] {this.inputs.getColumn(0), this.inputs.getColumn(1), this.inputs.getColumn(2)});
+	}
+
+	@Override
+	public double apply(double steadyStateMode, double[][] columns) {
+		return this.apply(steadyStateMode, 0, columns[0].length, columns);
+	}
+
+	@Override
+	public double apply(double steadyStateMode, int offset, int length, double[][] columns) {
+		this.result = kernel(offset, length, columns[0], columns[1], columns[2], FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.EHC),
+				FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ED), FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ECC), this.parameters.getEntry(0, 0));
+		return this.result;
+	}
+
+	/**
+	 * Calculation of Rule #28 of APAR from an already computed mode trace, without classifying the samples again.
+	 * @param trace		The operation mode of every sample of the window.
+	 * @return			The probability of fault.
+	 */
+	public double apply(ModeTrace trace) {
 		double mtmax = this.parameters.getEntry(0, 0);
-		double scoreSwitches = 0;
 		this.result = 0;
-		for (int ii=1; ii < uhc.length; ii++){
-			if(this.detMode.get(new Array2DRowRealMatrix(new double[] {uhc[ii], ud[ii], ucc[ii]})) !=
-					this.detMode.get(new Array2DRowRealMatrix(new double[] {uhc[ii-1], ud[ii-1], ucc[ii-1]}))){
-				scoreSwitches = scoreSwitches+1;
-			}
-		}
-		if(scoreSwitches > mtmax){
+		if(trace.getSwitchCount() > mtmax){
 			this.result = 1;
 		}
 		return this.result;
@@ -122,21 +130,69 @@ public class Rule28 implements AparInterface {
 	 * @return						The probability of fault.
 	 */
 	public static double apply(double[] uhc, double[] ud, double[] ucc){
-		RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-		RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.MTMAX)});
-		DetermineOperationMode detMode = new DetermineOperationMode();
-		double mtmax = parameters.getEntry(0, 0);
+		return kernel(0, uhc.length, uhc, ud, ucc, FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.EHC),
+				FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ED), FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.ECC), FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.MTMAX));
+	}
+
+	/**
+	 * Stateless kernel of Rule #28 of APAR, shared by the instance and static functions and by {@link AparKernel}.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param uhc					The normalized [0,1] heating coil valve control signal.
+	 * @param ud					The normalized [0,1] mixing box damper control signal.
+	 * @param ucc					The normalized [0,1] cooling coil valve control signal.
+	 * @param ehc					The threshold for the heating coil valve control signal.
+	 * @param ed					The threshold for the mixing box damper control signal.
+	 * @param ecc					The threshold for the cooling coil valve control signal.
+	 * @param mtmax					The maximum number of mode switches.
+	 * @return						The probability of fault.
+	 */
+	static double kernel(int offset, int length, double[] uhc, double[] ud, double[] ucc, double ehc, double ed, double ecc, double mtmax) {
 		double scoreSwitches = 0;
 		double result = 0;
-		for (int ii=1; ii < uhc.length; ii++){
-			if(detMode.get(new Array2DRowRealMatrix(new double[] {uhc[ii], ud[ii], ucc[ii]})) !=
-					detMode.get(new Array2DRowRealMatrix(new double[] {uhc[ii-1], ud[ii-1], ucc[ii-1]}))){
+		byte previousMode = length > 0 ? DetermineOperationMode.classify(uhc[offset], ud[offset], ucc[offset], ehc, ed, ecc) : 0;
+		for (int ii=offset+1; ii < offset+length; ii++){
+			byte mode = DetermineOperationMode.classify(uhc[ii], ud[ii], ucc[ii], ehc, ed, ecc);
+			if(mode != previousMode){
 				scoreSwitches = scoreSwitches+1;
 			}
+			previousMode = mode;
 		}
 		if(scoreSwitches > mtmax){
 			result = 1;
 		}
 		return result;
 	}
+
+	/**
+	 * Mode switch bitmap of Rule #28 of APAR over a slice. Bit ii of the bitmap is set when the operation mode of the sample offset+ii
+	 * differs from the one of the previous sample, so that the number of bits is the number of mode switches compared to the maximum.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param uhc					The normalized [0,1] heating coil valve control signal.
+	 * @param ud					The normalized [0,1] mixing box damper control signal.
+	 * @param ucc					The normalized [0,1] cooling coil valve control signal.
+	 * @param ehc					The threshold for the heating coil valve control signal.
+	 * @param ed					The threshold for the mixing box damper control signal.
+	 * @param ecc					The threshold for the cooling coil valve control signal.
+	 * @param bitmap				The array receiving the bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return						The number of mode switches.
+	 */
+	static int switches(int offset, int length, double[] uhc, double[] ud, double[] ucc, double ehc, double ed, double ecc, long[] bitmap) {
+		int count = 0;
+		byte previousMode = length > 0 ? DetermineOperationMode.classify(uhc[offset], ud[offset], ucc[offset], ehc, ed, ecc) : 0;
+		for(int ww=0; ww < ViolationBitmaps.words(length); ww++){
+			int start = offset + 64*ww;
+			int end = Math.min(offset+length, start+64);
+			long word = 0;
+			for(int ii=start; ii < end; ii++){
+				byte mode = DetermineOperationMode.classify(uhc[ii], ud[ii], ucc[ii], ehc, ed, ecc);
+				word |= (mode != previousMode ? 1L : 0L) << (ii - start);
+				previousMode = mode;
+			}
+			bitmap[ww] = word;
+			count = count + Long.bitCount(word);
+		}
+		return count;
+	}
 }
@@ -32,8 +32,7 @@ public class Rule4 implements AparInterface {
 	private String name = "Rule4";
 	private double steadyStateMode = 0;
 	private RealMatrix inputs;
-	private RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-	private RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.EHC)});
+	private RealMatrix parameters = new Array2DRowRealMatrix(FddParameterSnapshot.DEFAULT.values(FDD_PARAMETERS.EHC));
 	private double result;
 
 	/**
@@ -92,17 +91,18 @@ public class Rule4 implements AparInterface {
 
 	@Override
 	public double apply() {
-		double[] uhc = inputs.getColumn(0);
-		double ehc = this.parameters.getEntry(0, 0);
-		this.result = 0;
-		if(this.steadyStateMode == 1){
-			for(int ii=0; ii < uhc.length; ii++){
-				if(Math.abs(uhc[ii] - 1) <= ehc){
-					this.result = this.result+1;
-				}
-			}
-		}
-		return this.result/uhc.length;
+		return this.apply(this.steadyStateMode, 0, this.inputs.getRowDimension(), new double[][] {this.inputs.getColumn(0)});
+	}
+
+	@Override
+	public double apply(double steadyStateMode, double[][] columns) {
+		return this.apply(steadyStateMode, 0, columns[0].length, columns);
+	}
+
+	@Override
+	public double apply(double steadyStateMode, int offset, int length, double[][] columns) {
+		this.result = kernel(steadyStateMode, offset, length, columns[0], this.parameters.getEntry(0, 0));
+		return this.result;
 	}
 	/**
 	 * Calculation of Rule #4 of APAR as a static function.
@@ -111,17 +111,57 @@ public class Rule4 implements AparInterface {
 	 * @return						The probability of fault.
 	 */
 	public static double apply(double steadyStateMode, double[] uhc){
-		RobustFDDparameters robustFDDparameters = new RobustFDDparameters();
-		RealMatrix parameters = new Array2DRowRealMatrix(new double[] {robustFDDparameters.getRobustFDDParameters().get(FDD_PARAMETERS.EHC)});
-		double ehc = parameters.getEntry(0, 0);
+		return kernel(steadyStateMode, 0, uhc.length, uhc, FddParameterSnapshot.DEFAULT.get(FDD_PARAMETERS.EHC));
+	}
+
+	/**
+	 * Stateless kernel of Rule #4 of APAR, shared by the instance and static functions and by {@link AparKernel}.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param uhc					The normalized [0,1] heating coil valve control signal.
+	 * @param ehc					The threshold for the heating coil valve control signal.
+	 * @return						The probability of fault.
+	 */
+	static double kernel(double steadyStateMode, int offset, int length, double[] uhc, double ehc) {
 		double result = 0;
 		if(steadyStateMode == 1){
-			for(int ii=0; ii < uhc.length; ii++){
+			for(int ii=offset; ii < offset+length; ii++){
 				if(Math.abs(uhc[ii] - 1) <= ehc){
 					result = result+1;
 				}
 			}
 		}
-		return result/uhc.length;
+		return result/length;
+	}
+
+	/**
+	 * Violation bitmap of Rule #4 of APAR over a slice, built without data-dependent branches. Bit ii of the bitmap
+	 * is set when the sample offset+ii violates the rule; no bit is set when the rule does not apply in the steady-state mode.
+	 * @param steadyStateMode		The steady-state operation mode.
+	 * @param offset				The index of the first sample of the slice.
+	 * @param length				The number of samples of the slice.
+	 * @param uhc					The normalized [0,1] heating coil valve control signal.
+	 * @param ehc					The threshold for the heating coil valve control signal.
+	 * @param bitmap				The array receiving the bitmap, of at least {@link ViolationBitmaps#words(int)} words.
+	 * @return						The number of violations.
+	 */
+	static int violations(double steadyStateMode, int offset, int length, double[] uhc, double ehc, long[] bitmap) {
+		if(steadyStateMode != 1){
+			ViolationBitmaps.clear(bitmap, length);
+			return 0;
+		}
+		int count = 0;
+		for(int ww=0; ww < ViolationBitmaps.words(length); ww++){
+			int start = offset + 64*ww;
+			int end = Math.min(offset+length, start+64);
+			long word = 0;
+			for(int ii=start; ii < end; ii++){
+				word |= (Math.abs(uhc[ii] - 1) <= ehc ? 1L : 0L) << (ii - start);
+			}
+			bitmap[ww] = word;
+			count = count + Long.bitCount(word);
+		}
+		return count;
 	}
 }
@@ -0,0 +1,99 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+
+/**
+ * Mergeable state of one APAR rule over a chunk of AHU data: the number of samples violating the rule and the number of
+ * samples in whose operation mode the rule applies. Unlike the probability of fault, which is a ratio, the counts of
+ * independent chunks add up exactly, so that a long history can be evaluated in parallel and reduced afterwards.
+ */
+public class RuleAccumulator {
+
+	private long violations;
+	private long eligible;
+
+	/**
+	 * Instantiates an empty accumulator
+	 */
+	public RuleAccumulator() {
+		this(0, 0);
+	}
+
+	/**
+	 * Instantiates an accumulator from its counts, e.g. when received from another process
+	 * @param violations	The number of samples violating the rule.
+	 * @param eligible		The number of samples in whose operation mode the rule applies.
+	 */
+	public RuleAccumulator(long violations, long eligible) {
+		this.violations = violations;
+		this.eligible = eligible;
+	}
+
+	/**
+	 * Adds the counts of a chunk of AHU data.
+	 * @param violations	The number of samples violating the rule.
+	 * @param eligible		The number of samples in whose operation mode the rule applies.
+	 */
+	public void add(long violations, long eligible) {
+		this.violations = this.violations + violations;
+		this.eligible = this.eligible + eligible;
+	}
+
+	/**
+	 * Adds the counts of another accumulator of the same rule. The order of the chunks does not matter.
+	 * @param other		The accumulator to merge into this one.
+	 */
+	public void merge(RuleAccumulator other) {
+		this.add(other.violations, other.eligible);
+	}
+
+	/**
+	 * Empties the accumulator
+	 */
+	public void clear() {
+		this.violations = 0;
+		this.eligible = 0;
+	}
+
+	/**
+	 * Returns the number of samples violating the rule
+	 * @return	The number of samples violating the rule
+	 */
+	public long getViolations() {
+		return this.violations;
+	}
+
+	/**
+	 * Returns the number of samples in whose operation mode the rule applies
+	 * @return	The number of eligible samples
+	 */
+	public long getEligible() {
+		return this.eligible;
+	}
+
+	/**
+	 * Returns the share of the eligible samples violating the rule, 0 if there is no eligible sample
+	 * @return	The probability of fault
+	 */
+	public double getResult() {
+		return this.eligible > 0 ? ((double) this.violations)/this.eligible : 0;
+	}
+}
@@ -0,0 +1,109 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+
+
+/**
+ * Segmentation of a series of AHU data of any length into its maximal steady-state runs, i.e. the maximal slices over
+ * which the operation mode does not change. Where {@link DetermineSteadyStateOperationMode} voids a whole window as soon
+ * as one sample differs, the runs keep every sample usable, so that a day of history can be evaluated in a single call
+ * (@see eu.moeebius.fdd.rules.ahu.apar.AparEngine#aggregate).
+ */
+public class SteadyStateRuns {
+
+	private byte[] modes;
+	private int[] starts;
+	private int[] ends;
+	private int switchCount;
+
+	/**
+	 * Segmentation of a mode trace in a single pass over its mode switches.
+	 * @param trace		The operation mode of every sample of the series.
+	 */
+	public SteadyStateRuns(ModeTrace trace) {
+		int[] switchPositions = trace.getSwitchPositions();
+		byte[] traceModes = trace.getModes();
+		int count = trace.getLength() > 0 ? switchPositions.length+1 : 0;
+		this.modes = new byte[count];
+		this.starts = new int[count];
+		this.ends = new int[count];
+		this.switchCount = switchPositions.length;
+		int start = 0;
+		for(int rr=0; rr < count; rr++){
+			int end = rr < switchPositions.length ? switchPositions[rr] : trace.getLength();
+			this.modes[rr] = traceModes[start];
+			this.starts[rr] = start;
+			this.ends[rr] = end;
+			start = end;
+		}
+	}
+
+	/**
+	 * Returns the number of steady-state runs
+	 * @return	The number of steady-state runs
+	 */
+	public int getCount() {
+		return this.modes.length;
+	}
+
+	/**
+	 * Returns the operation mode of a run
+	 * @param run	The index of the run
+	 * @return	The operation mode of the run
+	 */
+	public byte getMode(int run) {
+		return this.modes[run];
+	}
+
+	/**
+	 * Returns the index of the first sample of a run
+	 * @param run	The index of the run
+	 * @return	The index of the first sample of the run
+	 */
+	public int getStart(int run) {
+		return this.starts[run];
+	}
+
+	/**
+	 * Returns the index following the last sample of a run
+	 * @param run	The index of the run
+	 * @return	The index following the last sample of the run
+	 */
+	public int getEnd(int run) {
+		return this.ends[run];
+	}
+
+	/**
+	 * Returns the number of samples of a run
+	 * @param run	The index of the run
+	 * @return	The number of samples of the run
+	 */
+	public int getLength(int run) {
+		return this.ends[run] - this.starts[run];
+	}
+
+	/**
+	 * Returns the number of mode switches of the series, one less than the number of runs
+	 * @return	The number of mode switches
+	 */
+	public int getSwitchCount() {
+		return this.switchCount;
+	}
+}
@@ -0,0 +1,207 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.util.Arrays;
+
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+import eu.moeebius.fdd.rules.ahu.apar.AparSymptoms.SYMPTOM;
+
+/**
+ * Evaluation of the complete APAR rule set over a sliding window of the most recent samples of one AHU unit. Each sample
+ * is tested once when it arrives with the kernels of the rules (@see eu.moeebius.fdd.rules.ahu.apar.AparKernel) and its
+ * outcome is kept in a ring buffer, so that the violation counters are updated in constant time when it enters and leaves
+ * the window. The symptoms are identical to the ones of {@link AparEngine} applied
+ * to the samples currently in the window.
+ */
+public class StreamingAparEvaluator implements AparSampleSink {
+
+	private AparEngine engine;
+	private DetermineOperationMode determineMode;
+	private int[] violations;
+	private byte[] modes;
+	private boolean[] switched;
+	private AparWindow sample = new AparWindow(new double[1], new double[1], new double[1], new double[1], new double[1], new double[1],
+			new double[1], new double[1], new double[1]);
+	private long[] bitmap = new long[1];
+	private int[] violationCounts = new int[AparEngine.SYMPTOMS-1];
+	private int[] modeCounts = new int[6];
+	private int switchCount = 0;
+	private int head = 0;
+	private int length = 0;
+
+	/**
+	 * Instantiates the streaming evaluator with the default FDD parameters
+	 * @param capacity		The number of samples of the sliding window (e.g. the rule delay over the sample period).
+	 * @throws IllegalArgumentException	If the capacity is not positive.
+	 */
+	public StreamingAparEvaluator(int capacity) {
+		this(capacity, new AparEngine());
+	}
+
+	/**
+	 * Instantiates the streaming evaluator
+	 * @param capacity		The number of samples of the sliding window (e.g. the rule delay over the sample period).
+	 * @param engine		The engine providing the rules and their parameters.
+	 * @throws IllegalArgumentException	If the capacity is not positive.
+	 */
+	public StreamingAparEvaluator(int capacity, AparEngine engine) {
+		if(capacity <= 0){
+			throw new IllegalArgumentException("The capacity must be positive, got " + capacity);
+		}
+		this.engine = engine;
+		this.determineMode = engine.getDetermineOperationMode();
+		this.violations = new int[capacity];
+		this.modes = new byte[capacity];
+		this.switched = new boolean[capacity];
+	}
+
+	/**
+	 * Adds a sample to the window, dropping the oldest one once the window is full.
+	 * @param tsa		The supply air temperature.
+	 * @param tsas		The supply air temperature setpoint.
+	 * @param tma		The mixed air temperature.
+	 * @param tra		The return air temperature.
+	 * @param toa		The outdoor air temperature.
+	 * @param tco		The changeover air temperature for switching between modes 3 and 4.
+	 * @param uhc		The normalized [0,1] heating coil valve control signal.
+	 * @param ucc		The normalized [0,1] cooling coil valve control signal.
+	 * @param ud		The normalized [0,1] mixing box damper control signal.
+	 */
+	public void push(double tsa, double tsas, double tma, double tra, double toa, double tco,
+			double uhc, double ucc, double ud) {
+		int capacity = this.modes.length;
+		byte mode = this.determineMode.classify(uhc, ud, ucc);
+		boolean switched = this.length > 0 && mode != this.modes[(this.head + capacity - 1) % capacity];
+		if(this.length == capacity){
+			this.remove(this.violations[this.head]);
+			this.modeCounts[this.modes[this.head]]--;
+			if(this.switched[this.head]){
+				this.switchCount--;
+			}
+		}else{
+			this.length++;
+		}
+		int bits = this.test(mode, tsa, tsas, tma, tra, toa, tco, uhc, ucc, ud);
+		this.add(bits);
+		this.modeCounts[mode]++;
+		if(switched){
+			this.switchCount++;
+		}
+		this.violations[this.head] = bits;
+		this.modes[this.head] = mode;
+		this.switched[this.head] = switched;
+		this.head = (this.head + 1) % capacity;
+	}
+
+	/**
+	 * Adds a sample to the window (@see #push). The timestamp is ignored, the window being a number of samples.
+	 */
+	@Override
+	public void accept(long timestamp, double tsa, double tsas, double tma, double tra, double toa, double tco,
+			double uhc, double ucc, double ud) {
+		this.push(tsa, tsas, tma, tra, toa, tco, uhc, ucc, ud);
+	}
+
+	/**
+	 * Returns the rules violated by a sample, evaluated on the single-sample window.
+	 */
+	private int test(byte mode, double tsa, double tsas, double tma, double tra, double toa, double tco,
+			double uhc, double ucc, double ud) {
+		this.sample.getColumn(SIGNAL.TSA)[0] = tsa;
+		this.sample.getColumn(SIGNAL.TSAS)[0] = tsas;
+		this.sample.getColumn(SIGNAL.TMA)[0] = tma;
+		this.sample.getColumn(SIGNAL.TRA)[0] = tra;
+		this.sample.getColumn(SIGNAL.TOA)[0] = toa;
+		this.sample.getColumn(SIGNAL.TCO)[0] = tco;
+		this.sample.getColumn(SIGNAL.UHC)[0] = uhc;
+		this.sample.getColumn(SIGNAL.UCC)[0] = ucc;
+		this.sample.getColumn(SIGNAL.UD)[0] = ud;
+		return this.engine.violations(mode, this.sample, 0, this.bitmap);
+	}
+
+	private void add(int bits) {
+		while(bits != 0){
+			this.violationCounts[Integer.numberOfTrailingZeros(bits)]++;
+			bits &= bits - 1;
+		}
+	}
+
+	private void remove(int bits) {
+		while(bits != 0){
+			this.violationCounts[Integer.numberOfTrailingZeros(bits)]--;
+			bits &= bits - 1;
+		}
+	}
+
+	/**
+	 * Calculation of all the APAR symptoms over the samples currently in the window, in constant time.
+	 * @param symptoms		The array receiving the probability of fault for each of the 28 APAR rules, in the order of {@link SYMPTOM}.
+	 * @return				The steady-state operation mode of the window.
+	 */
+	public double getSymptoms(double[] symptoms) {
+		int capacity = this.modes.length;
+		Arrays.fill(symptoms, 0, AparEngine.SYMPTOMS, 0);
+		if(this.length == 0){
+			return 0;
+		}
+		int oldest = (this.head + capacity - this.length) % capacity;
+		byte newestMode = this.modes[(this.head + capacity - 1) % capacity];
+		byte steadyStateMode = this.modeCounts[newestMode] == this.length ? newestMode : 0;
+		if(steadyStateMode != 0){
+			for(int rr=0; rr < AparEngine.SYMPTOMS-1; rr++){
+				symptoms[rr] = (double) this.violationCounts[rr];
+			}
+		}
+		for(int rr=0; rr < AparEngine.SYMPTOMS-1; rr++){
+			symptoms[rr] = symptoms[rr]/this.length;
+		}
+		// the oldest sample switched from a sample that already left the window
+		int scoreSwitches = this.switchCount - (this.switched[oldest] ? 1 : 0);
+		symptoms[AparEngine.SYMPTOMS-1] = scoreSwitches > this.engine.getMaxModeSwitches() ? 1 : 0;
+		return steadyStateMode;
+	}
+
+	/**
+	 * Empties the window, e.g. when {@link AparGate} suppresses a sample.
+	 */
+	public void clear() {
+		Arrays.fill(this.violationCounts, 0);
+		Arrays.fill(this.modeCounts, 0);
+		this.switchCount = 0;
+		this.head = 0;
+		this.length = 0;
+	}
+
+	/**
+	 * Returns the number of samples currently in the window
+	 * @return	The number of samples currently in the window
+	 */
+	public int getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Returns the number of samples of the sliding window
+	 * @return	The number of samples of the sliding window
+	 */
+	public int getCapacity() {
+		return this.modes.length;
+	}
+}
@@ -0,0 +1,98 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar;
+import java.util.Arrays;
+
+/**
+ * Helpers for the violation bitmaps of the APAR rules (@see eu.moeebius.fdd.rules.ahu.apar.AparKernel#violations), where bit ii of
+ * word ii/64 stands for the sample ii of the slice evaluated. The bitmaps tell which samples tripped a rule without evaluating it again.
+ */
+public final class ViolationBitmaps {
+
+	private ViolationBitmaps() {
+	}
+
+	/**
+	 * Returns the number of words of the bitmap of a slice
+	 * @param length	The number of samples of the slice
+	 * @return	The number of words of the bitmap
+	 */
+	public static int words(int length) {
+		return (length + 63) >>> 6;
+	}
+
+	/**
+	 * Clears the bitmap of a slice.
+	 * @param bitmap	The bitmap.
+	 * @param length	The number of samples of the slice.
+	 */
+	public static void clear(long[] bitmap, int length) {
+		Arrays.fill(bitmap, 0, words(length), 0L);
+	}
+
+	/**
+	 * Checks whether a sample is set in a bitmap
+	 * @param bitmap	The bitmap.
+	 * @param sample	The index of the sample in the slice.
+	 * @return	True if the sample violates the rule
+	 */
+	public static boolean get(long[] bitmap, int sample) {
+		return (bitmap[sample >>> 6] & (1L << sample)) != 0;
+	}
+
+	/**
+	 * Returns the first sample set in a bitmap from a given sample on, so that the violations are listed with
+	 * for(int ii=next(bitmap, 0, length); ii >= 0; ii=next(bitmap, ii+1, length)).
+	 * @param bitmap	The bitmap.
+	 * @param from		The index of the first sample to check.
+	 * @param length	The number of samples of the slice.
+	 * @return	The index of the first sample set, -1 if there is none
+	 */
+	public static int next(long[] bitmap, int from, int length) {
+		if(from >= length){
+			return -1;
+		}
+		int word = from >>> 6;
+		long bits = bitmap[word] & (-1L << from);
+		while(bits == 0){
+			word = word+1;
+			if(word >= words(length)){
+				return -1;
+			}
+			bits = bitmap[word];
+		}
+		int sample = (word << 6) + Long.numberOfTrailingZeros(bits);
+		return sample < length ? sample : -1;
+	}
+
+	/**
+	 * Counts the samples set in a bitmap
+	 * @param bitmap	The bitmap.
+	 * @param length	The number of samples of the slice.
+	 * @return	The number of samples set
+	 */
+	public static int count(long[] bitmap, int length) {
+		int count = 0;
+		for(int ww=0; ww < words(length); ww++){
+			count = count + Long.bitCount(bitmap[ww]);
+		}
+		return count;
+	}
+}
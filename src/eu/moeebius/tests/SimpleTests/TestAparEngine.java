@@ -0,0 +1,131 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package eu.moeebius.tests.simpletests;
+
+import java.util.Random;
+
+import eu.moeebius.fdd.rules.ahu.apar.*;
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+
+/**
+ * Randomized equivalence check of the APAR engine: the symptoms of {@link AparEngine#apply(AparWindow)} must be bit-identical
+ * to the ones of Rule1 ... Rule28 applied one by one with the steady-state mode of the window, on steady windows of every
+ * operation mode and on windows with mode switches. Exits with an exception on the first mismatch.
+ */
+public class TestAparEngine {
+
+	private static final int WINDOWS = 5000;
+
+	public static void main(String[] args) {
+		Random random = new Random(args.length > 0 ? Long.parseLong(args[0]) : 42L);
+		AparEngine engine = new AparEngine();
+		int steady = 0;
+		int nonZero = 0;
+		for(int ww=0; ww < WINDOWS; ww++){
+			AparWindow window = window(random, 1 + random.nextInt(300), 1 + random.nextInt(5), random.nextInt(3) == 0 ? 0.05 : 0);
+			double[] expected = rules(window);
+			double[] actual = engine.apply(window);
+			for(int rr=0; rr < AparEngine.SYMPTOMS; rr++){
+				if(Double.doubleToLongBits(expected[rr]) != Double.doubleToLongBits(actual[rr])){
+					throw new IllegalStateException("Window " + ww + ": Rule #" + (rr+1) + " gives " + expected[rr] + ", the engine " + actual[rr]);
+				}
+				if(actual[rr] != 0){
+					nonZero = nonZero+1;
+				}
+			}
+			if(engine.trace(window).getSteadyStateMode() != 0){
+				steady = steady+1;
+			}
+		}
+		System.out.println("AparEngine matches Rule1 ... Rule28 on " + WINDOWS + " windows (" + steady + " steady, " + nonZero + " non-zero symptoms)");
+	}
+
+	/**
+	 * Calculation of the symptoms rule by rule through the static functions
+	 */
+	static double[] rules(AparWindow window) {
+		double[] tsa = window.getColumn(SIGNAL.TSA);
+		double[] tsas = window.getColumn(SIGNAL.TSAS);
+		double[] tma = window.getColumn(SIGNAL.TMA);
+		double[] tra = window.getColumn(SIGNAL.TRA);
+		double[] toa = window.getColumn(SIGNAL.TOA);
+		double[] tco = window.getColumn(SIGNAL.TCO);
+		double[] uhc = window.getColumn(SIGNAL.UHC);
+		double[] ucc = window.getColumn(SIGNAL.UCC);
+		double[] ud = window.getColumn(SIGNAL.UD);
+		double mode = DetermineSteadyStateOperationMode.apply(uhc, ud, ucc);
+		return new double[] {
+			Rule1.apply(mode, tsa, tma), Rule2.apply(mode, tra, toa, tma), Rule3.apply(mode, uhc, tsas, tsa), Rule4.apply(mode, uhc),
+			Rule5.apply(mode, toa, tsas), Rule6.apply(mode, tsa, tra), Rule7.apply(mode, tsa, tma), Rule8.apply(mode, toa, tsas),
+			Rule9.apply(mode, toa, tco), Rule10.apply(mode, toa, tma), Rule11.apply(mode, tsa, tma), Rule12.apply(mode, tsa, tra),
+			Rule13.apply(mode, ucc, tsa, tsas), Rule14.apply(mode, ucc), Rule15.apply(mode, toa, tco), Rule16.apply(mode, tsa, tma),
+			Rule17.apply(mode, tsa, tra), Rule18.apply(mode, tra, toa, tma), Rule19.apply(mode, ucc, tsa, tsas), Rule20.apply(mode, ucc),
+			Rule21.apply(mode, ucc, uhc, ud), Rule22.apply(mode, ucc, uhc), Rule23.apply(mode, uhc, ud), Rule24.apply(mode, ud, ucc),
+			Rule25.apply(mode, tsa, tsas), Rule26.apply(mode, tma, tra, toa), Rule27.apply(mode, tma, tra, toa), Rule28.apply(uhc, ud, ucc)};
+	}
+
+	/**
+	 * Builds a random window whose control signals keep an operation mode, but for a share of samples in a random mode. One in ten
+	 * temperatures sits on the bound of its range and the outdoor air equals the return air now and then, to exercise the thresholds
+	 * and the division of the outdoor air fraction.
+	 */
+	static AparWindow window(Random random, int length, int mode, double switchProbability) {
+		double[] uhc = new double[length];
+		double[] ud = new double[length];
+		double[] ucc = new double[length];
+		for(int ii=0; ii < length; ii++){
+			int sampleMode = random.nextDouble() < switchProbability ? 1 + random.nextInt(5) : mode;
+			double valve = random.nextBoolean() ? 1.0 - 0.03*random.nextDouble() : 0.5 + 0.5*random.nextDouble();
+			switch(sampleMode){
+			case 1:
+				uhc[ii] = valve; ud[ii] = 0.01; ucc[ii] = 0.01;
+				break;
+			case 2:
+				uhc[ii] = 0.01; ud[ii] = 0.2 + 0.6*random.nextDouble(); ucc[ii] = 0.01;
+				break;
+			case 3:
+				uhc[ii] = 0.01; ud[ii] = 0.99; ucc[ii] = valve;
+				break;
+			case 4:
+				uhc[ii] = 0.01; ud[ii] = 0.01; ucc[ii] = valve;
+				break;
+			default:
+				uhc[ii] = random.nextDouble(); ud[ii] = random.nextDouble(); ucc[ii] = random.nextDouble();
+				break;
+			}
+		}
+		double[] tra = temperatures(random, length, 18, 24);
+		double[] toa = temperatures(random, length, -5, 30);
+		for(int ii=0; ii < length; ii++){
+			if(random.nextInt(20) == 0){
+				toa[ii] = tra[ii];
+			}
+		}
+		return new AparWindow(temperatures(random, length, 10, 30), temperatures(random, length, 10, 30), temperatures(random, length, 10, 30),
+				tra, toa, temperatures(random, length, 10, 20), uhc, ucc, ud);
+	}
+
+	private static double[] temperatures(Random random, int length, double low, double high) {
+		double[] column = new double[length];
+		for(int ii=0; ii < length; ii++){
+			column[ii] = random.nextInt(10) == 0 ? (random.nextBoolean() ? low : high) : low + (high - low)*random.nextDouble();
+		}
+		return column;
+	}
+}
@@ -0,0 +1,111 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package eu.moeebius.tests.simpletests;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import eu.moeebius.fdd.rules.ahu.apar.*;
+import eu.moeebius.fdd.rules.ahu.apar.AparSignals.SIGNAL;
+
+/**
+ * Randomized equivalence check of the two forms of the rules: for Rule1 ... Rule27, every steady-state mode and random slices of
+ * random windows, the violation count of {@link AparKernel#violations(FddParameterSnapshot, double, AparWindow, int, int, long[])}
+ * must give the probability of fault of {@link AparKernel#apply(FddParameterSnapshot, double, AparWindow, int, int)}, the bitmap
+ * must hold that many bits, none past the slice, and each bit must match the kernel applied to its sample alone. The per-sample
+ * violations of {@link AparEngine#violations(byte, AparWindow, int, long[])} are checked the same way. Rule #28 counts mode
+ * switches, not violations, and is left out. Exits with an exception on the first mismatch.
+ */
+public class TestAparKernels {
+
+	private static final int SLICES = 20000;
+
+	public static void main(String[] args) {
+		Random random = new Random(args.length > 0 ? Long.parseLong(args[0]) : 42L);
+		AparEngine engine = new AparEngine();
+		FddParameterSnapshot parameters = engine.getParameters();
+		AparKernel[] kernels = AparKernel.values();
+		long[] bitmap = new long[ViolationBitmaps.words(400)];
+		long[] sample = new long[1];
+		long bits = 0;
+		for(int ss=0; ss < SLICES; ss++){
+			AparWindow window = window(random, 1 + random.nextInt(400));
+			int offset = random.nextInt(window.getLength());
+			int length = 1 + random.nextInt(window.getLength() - offset);
+			for(int mode=0; mode <= 5; mode++){
+				for(int rr=0; rr < AparEngine.SYMPTOMS-1; rr++){
+					AparKernel kernel = kernels[rr];
+					// garbage in the bitmap must be overwritten, including the bits past the slice
+					Arrays.fill(bitmap, -1L);
+					int count = kernel.violations(parameters, mode, window, offset, length, bitmap);
+					double probability = kernel.apply(parameters, mode, window, offset, length);
+					if(Double.doubleToLongBits(probability) != Double.doubleToLongBits((double) count/length)){
+						throw new IllegalStateException(message(ss, kernel, mode, offset, length) + " gives " + probability + ", its bitmap " + count + " violations");
+					}
+					if(ViolationBitmaps.count(bitmap, length) != count){
+						throw new IllegalStateException(message(ss, kernel, mode, offset, length) + " returns " + count + " violations for " + ViolationBitmaps.count(bitmap, length) + " bits");
+					}
+					if(length % 64 != 0 && bitmap[ViolationBitmaps.words(length)-1] >>> (length % 64) != 0){
+						throw new IllegalStateException(message(ss, kernel, mode, offset, length) + " sets bits past the slice");
+					}
+					for(int ii=0; ii < length; ii++){
+						boolean violated = kernel.apply(parameters, mode, window, offset+ii, 1) == 1;
+						if(ViolationBitmaps.get(bitmap, ii) != violated){
+							throw new IllegalStateException(message(ss, kernel, mode, offset, length) + " disagrees with the kernel on sample " + (offset+ii));
+						}
+					}
+					bits = bits + count;
+				}
+			}
+			for(int ii=offset; ii < offset+length; ii++){
+				byte mode = engine.getDetermineOperationMode().classify(window.getColumn(SIGNAL.UHC)[ii], window.getColumn(SIGNAL.UD)[ii], window.getColumn(SIGNAL.UCC)[ii]);
+				int violated = engine.violations(mode, window, ii, sample);
+				for(int rr=0; rr < AparEngine.SYMPTOMS-1; rr++){
+					boolean expected = kernels[rr].apply(parameters, mode, window, ii, 1) == 1;
+					if(((violated >>> rr) & 1) == 1 != expected){
+						throw new IllegalStateException("Slice " + ss + ": the engine disagrees with " + kernels[rr] + " on sample " + ii + " in mode " + mode);
+					}
+				}
+			}
+		}
+		System.out.println("AparKernel violations match apply on " + SLICES + " slices (" + bits + " violations)");
+	}
+
+	private static String message(int slice, AparKernel kernel, int mode, int offset, int length) {
+		return "Slice " + slice + ": " + kernel + " in mode " + mode + " over [" + offset + ", " + (offset+length) + ")";
+	}
+
+	/**
+	 * Builds a random window of a random operation mode as {@link TestAparEngine#window}, in which the mixed, return and outdoor
+	 * air temperatures are now and then all equal, so that the outdoor air fraction is 0/0.
+	 */
+	private static AparWindow window(Random random, int length) {
+		AparWindow window = TestAparEngine.window(random, length, 1 + random.nextInt(5), random.nextInt(3) == 0 ? 0.2 : 0);
+		double[] tma = window.getColumn(SIGNAL.TMA);
+		double[] tra = window.getColumn(SIGNAL.TRA);
+		double[] toa = window.getColumn(SIGNAL.TOA);
+		for(int ii=0; ii < length; ii++){
+			if(random.nextInt(20) == 0){
+				tma[ii] = tra[ii];
+				toa[ii] = tra[ii];
+			}
+		}
+		return window;
+	}
+}
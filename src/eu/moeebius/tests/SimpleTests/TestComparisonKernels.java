@@ -0,0 +1,87 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package eu.moeebius.tests.simpletests;
+
+import java.util.Random;
+
+import eu.moeebius.fdd.rules.ahu.apar.ComparisonKernels;
+
+/**
+ * Randomized equivalence check of the comparison kernels: the counts of the SIMD kernels selected by {@link ComparisonKernels#get()}
+ * must be identical to the ones of {@link ComparisonKernels#scalar()} on NaN, signed zeros, infinities and ordinary values, over
+ * slices whose offsets and lengths leave every possible tail to the scalar loop. Requires Java 17 with apar-vector on the class
+ * path and --add-modules jdk.incubator.vector; exits with an exception on the first mismatch.
+ */
+public class TestComparisonKernels {
+
+	private static final int SLICES = 20000;
+
+	private static final double[] SPECIAL = {Double.NaN, 0.0, -0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+			Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 0.5, 1, -1};
+
+	public static void main(String[] args) {
+		Random random = new Random(args.length > 0 ? Long.parseLong(args[0]) : 42L);
+		ComparisonKernels scalar = ComparisonKernels.scalar();
+		ComparisonKernels kernels = ComparisonKernels.get();
+		if(kernels == scalar){
+			throw new IllegalStateException("The SIMD kernels are not available, run on Java 17 with apar-vector on the class path and --add-modules jdk.incubator.vector");
+		}
+		for(int ss=0; ss < SLICES; ss++){
+			int offset = random.nextInt(17);
+			int length = random.nextInt(70);
+			int size = offset + length + random.nextInt(17);
+			double[] a = values(random, size);
+			double[] b = values(random, size);
+			double[] c = values(random, size);
+			double c1 = value(random);
+			double c2 = value(random);
+			check(ss, "countGreater", scalar.countGreater(a, b, c1, c2, offset, length), kernels.countGreater(a, b, c1, c2, offset, length));
+			check(ss, "countLess", scalar.countLess(a, b, c1, c2, offset, length), kernels.countLess(a, b, c1, c2, offset, length));
+			check(ss, "countAbsGreater", scalar.countAbsGreater(a, b, c1, c2, offset, length), kernels.countAbsGreater(a, b, c1, c2, offset, length));
+			check(ss, "countBelowMin", scalar.countBelowMin(a, b, c, c1, offset, length), kernels.countBelowMin(a, b, c, c1, offset, length));
+			check(ss, "countAboveMax", scalar.countAboveMax(a, b, c, c1, offset, length), kernels.countAboveMax(a, b, c, c1, offset, length));
+		}
+		System.out.println("Kernels " + kernels.getName() + " match the scalar kernels on " + SLICES + " slices");
+	}
+
+	private static void check(int slice, String kernel, int expected, int actual) {
+		if(expected != actual){
+			throw new IllegalStateException("Slice " + slice + ": " + kernel + " counts " + expected + " in the scalar kernels, " + actual + " in the SIMD ones");
+		}
+	}
+
+	/**
+	 * Builds a random signal, a third of whose samples are special values.
+	 */
+	private static double[] values(Random random, int size) {
+		double[] values = new double[size];
+		for(int ii=0; ii < size; ii++){
+			values[ii] = value(random);
+		}
+		return values;
+	}
+
+	private static double value(Random random) {
+		if(random.nextInt(3) == 0){
+			return SPECIAL[random.nextInt(SPECIAL.length)];
+		}
+		// small integers make ties, i.e. equal operands, frequent
+		return random.nextBoolean() ? random.nextInt(5) - 2 : 20*random.nextGaussian();
+	}
+}
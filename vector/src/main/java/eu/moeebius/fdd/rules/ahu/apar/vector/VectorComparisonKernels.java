@@ -0,0 +1,107 @@
+/******************************************************************************
+ * This project has received funding from the European Union's Horizon 2020 
+ * research and innovation programme under grant agreement No 680517 (MOEEBIUS)
+ *
+ * Copyright 2016 Technische Hochschule Nuernberg Georg Simon Ohm. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or  implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+
+package eu.moeebius.fdd.rules.ahu.apar.vector;
+
+import eu.moeebius.fdd.rules.ahu.apar.ComparisonKernels;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation of the comparison kernels of the APAR rules on the Vector API. Each iteration compares as many
+ * samples as the widest vector of the CPU holds (eight doubles with AVX-512) and counts the lanes of the resulting mask;
+ * the remaining samples go through the scalar loop. Selected by {@link ComparisonKernels#get()} when the JVM runs with
+ * --add-modules jdk.incubator.vector.
+ */
+public class VectorComparisonKernels extends ComparisonKernels {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/**
+	 * Instantiates the kernels
+	 */
+	public VectorComparisonKernels() {
+	}
+
+	@Override
+	public String getName() {
+		return "vector" + SPECIES.length();
+	}
+
+	@Override
+	public int countGreater(double[] a, double[] b, double c1, double c2, int offset, int length) {
+		int count = 0;
+		int end = offset + SPECIES.loopBound(length);
+		int ii = offset;
+		for(; ii < end; ii += SPECIES.length()){
+			DoubleVector reference = DoubleVector.fromArray(SPECIES, b, ii).add(c1).add(c2);
+			count = count + DoubleVector.fromArray(SPECIES, a, ii).compare(VectorOperators.GT, reference).trueCount();
+		}
+		return count + super.countGreater(a, b, c1, c2, ii, offset + length - ii);
+	}
+
+	@Override
+	public int countLess(double[] a, double[] b, double c1, double c2, int offset, int length) {
+		int count = 0;
+		int end = offset + SPECIES.loopBound(length);
+		int ii = offset;
+		for(; ii < end; ii += SPECIES.length()){
+			DoubleVector reference = DoubleVector.fromArray(SPECIES, b, ii).add(c1).add(c2);
+			count = count + DoubleVector.fromArray(SPECIES, a, ii).compare(VectorOperators.LT, reference).trueCount();
+		}
+		return count + super.countLess(a, b, c1, c2, ii, offset + length - ii);
+	}
+
+	@Override
+	public int countAbsGreater(double[] a, double[] b, double c1, double c2, int offset, int length) {
+		int count = 0;
+		int end = offset + SPECIES.loopBound(length);
+		int ii = offset;
+		for(; ii < end; ii += SPECIES.length()){
+			DoubleVector difference = DoubleVector.fromArray(SPECIES, a, ii).add(c1).sub(DoubleVector.fromArray(SPECIES, b, ii));
+			count = count + difference.abs().compare(VectorOperators.GT, c2).trueCount();
+		}
+		return count + super.countAbsGreater(a, b, c1, c2, ii, offset + length - ii);
+	}
+
+	@Override
+	public int countBelowMin(double[] a, double[] b, double[] c, double d, int offset, int length) {
+		int count = 0;
+		int end = offset + SPECIES.loopBound(length);
+		int ii = offset;
+		for(; ii < end; ii += SPECIES.length()){
+			DoubleVector reference = DoubleVector.fromArray(SPECIES, b, ii).min(DoubleVector.fromArray(SPECIES, c, ii)).sub(d);
+			count = count + DoubleVector.fromArray(SPECIES, a, ii).compare(VectorOperators.LT, reference).trueCount();
+		}
+		return count + super.countBelowMin(a, b, c, d, ii, offset + length - ii);
+	}
+
+	@Override
+	public int countAboveMax(double[] a, double[] b, double[] c, double d, int offset, int length) {
+		int count = 0;
+		int end = offset + SPECIES.loopBound(length);
+		int ii = offset;
+		for(; ii < end; ii += SPECIES.length()){
+			DoubleVector reference = DoubleVector.fromArray(SPECIES, b, ii).max(DoubleVector.fromArray(SPECIES, c, ii)).add(d);
+			count = count + DoubleVector.fromArray(SPECIES, a, ii).compare(VectorOperators.GT, reference).trueCount();
+		}
+		return count + super.countAboveMax(a, b, c, d, ii, offset + length - ii);
+	}
+}